@@ -2,18 +2,38 @@ plugins {
     java
     application
     id("org.danilopianini.gradle-java-qa") version "1.25.0"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 tasks.javadoc {
     isFailOnError = false
 }
 
+// The SIMD kernels use the incubating Vector API, and are the only classes compiled with its module.
+// They are loaded through reflection, and without the module at runtime the scalar ones are used.
+val vectorModule = listOf("--add-modules", "jdk.incubator.vector")
+
+val simd by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+}
+
+tasks.named<JavaCompile>("compileSimdJava") {
+    // The only warning about the kernels is the one about the incubating module, which javac cannot turn off alone
+    options.compilerArgs.addAll(vectorModule + "-Xlint:none")
+}
+
+tasks.jar {
+    from(simd.output)
+}
+
 repositories {
     mavenCentral()
     jcenter()
 }
 
 dependencies {
+    runtimeOnly(simd.output)
+
     // Use JUnit Jupiter API for testing.
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.10.1")
 
@@ -21,18 +41,52 @@ dependencies {
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.10.1")
 }
 
+jmh {
+    // Run with: ./gradlew jmh (benchmarks live in src/jmh/java)
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Allocation rate (gc.alloc.rate.norm) is reported along with the timings
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    jvmArgs.addAll(vectorModule)
+}
+
 val mainClass: String by project
 
 application {
     // The following allows to run with: ./gradlew -PmainClass=it.unibo.oop.MyMainClass run
     mainClass.set(project.properties["mainClass"].toString())
+    applicationDefaultJvmArgs = vectorModule
 }
 
 val test by tasks.getting(Test::class) {
-    // Use junit platform for unit tests
-    useJUnitPlatform()
+    // Use junit platform for unit tests; wall-clock assertions are left to performanceTest
+    useJUnitPlatform {
+        excludeTags("performance")
+    }
+    jvmArgs(vectorModule)
     testLogging {
         events(*(org.gradle.api.tasks.testing.logging.TestLogEvent.values())) // events("passed", "skipped", "failed")
     }
     testLogging.showStandardStreams = true    
 }
+
+// Tests timed on the wall clock, run on their own after the others: ./gradlew performanceTest
+val performanceTest by tasks.registering(Test::class) {
+    description = "Runs the tests tagged as performance."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("performance")
+    }
+    jvmArgs(vectorModule)
+    shouldRunAfter(test)
+}
+
+// Complexity regressions fail the build
+tasks.check {
+    dependsOn(performanceTest)
+}
@@ -0,0 +1,114 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * The kinds of elements the benchmarks are run on: boxed integers, strings and
+ * small records.
+ */
+public enum ElementType {
+
+    /**
+     * Boxed {@link Integer} elements.
+     */
+    INTEGER {
+        @Override
+        Object create(final int i) {
+            return i;
+        }
+
+        @Override
+        UnaryOperator<Object> operator() {
+            return x -> (Integer) x + 1;
+        }
+    },
+    /**
+     * {@link String} elements.
+     */
+    STRING {
+        @Override
+        Object create(final int i) {
+            return "element-" + i;
+        }
+
+        @Override
+        UnaryOperator<Object> operator() {
+            return x -> ((String) x).concat("!");
+        }
+    },
+    /**
+     * Small {@link Point} records.
+     */
+    RECORD {
+        @Override
+        Object create(final int i) {
+            return new Point(i, -i);
+        }
+
+        @Override
+        UnaryOperator<Object> operator() {
+            return x -> new Point(((Point) x).y(), ((Point) x).x());
+        }
+    };
+
+    private static final long GOLDEN = 0x9E37_79B9_7F4A_7C15L;
+    private static final int HASH_SHIFT = 33;
+
+    /**
+     * A small record, used to measure the cost of user-defined element types.
+     *
+     * @param x the first coordinate
+     * @param y the second coordinate
+     */
+    record Point(int x, int y) { }
+
+    /**
+     * @param i the index of the element
+     * @return the i-th element of this type
+     */
+    abstract Object create(int i);
+
+    /**
+     * @return a cheap operator producing another element of this type
+     */
+    abstract UnaryOperator<Object> operator();
+
+    /**
+     * @return a predicate that lets about half of the elements pass
+     */
+    Predicate<Object> predicate() {
+        return x -> (spread(x) & 1) == 0;
+    }
+
+    /**
+     * @param cardinality the number of distinct keys
+     * @return a key function mapping the elements onto [0, cardinality)
+     */
+    static Function<Object, Integer> keys(final int cardinality) {
+        return x -> spread(x) % cardinality;
+    }
+
+    /*
+     * Fibonacci hashing: element hash codes (e.g. of consecutive integers) are
+     * far from uniform in their low bits.
+     */
+    private static int spread(final Object x) {
+        return (int) (x.hashCode() * GOLDEN >>> HASH_SHIFT);
+    }
+
+    /**
+     * @param size the number of elements
+     * @return a list holding the first size elements of this type
+     */
+    List<Object> list(final int size) {
+        final List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(create(i));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,80 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link LambdaUtilities#group} against
+ * {@link Collectors#groupingBy}, varying the number of distinct keys.
+ *
+ * Few keys over many elements means large buckets, which is the worst case
+ * for implementations that copy the bucket at each insertion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GroupBenchmark {
+
+    /**
+     * Number of elements of the input list.
+     */
+    @Param({ "10", "10000", "100000" })
+    private int size;
+
+    /**
+     * Number of distinct keys.
+     */
+    @Param({ "1", "100", "10000" })
+    private int cardinality;
+
+    /**
+     * Type of the elements of the input list.
+     */
+    @Param
+    private ElementType type;
+
+    private List<Object> list;
+    private Function<Object, Integer> key;
+
+    /**
+     * Builds the input list.
+     */
+    @Setup
+    public void setup() {
+        list = type.list(size);
+        key = ElementType.keys(cardinality);
+    }
+
+    /**
+     * @return the result of group
+     */
+    @Benchmark
+    public Map<Integer, Set<Object>> group() {
+        return LambdaUtilities.group(list, key);
+    }
+
+    /**
+     * @return the result of a stream-based group
+     */
+    @Benchmark
+    public Map<Integer, Set<Object>> groupStream() {
+        return list.stream().collect(
+            Collectors.groupingBy(key, LinkedHashMap::new, Collectors.toCollection(LinkedHashSet::new))
+        );
+    }
+}
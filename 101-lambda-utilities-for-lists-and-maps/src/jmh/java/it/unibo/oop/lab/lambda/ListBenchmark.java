@@ -0,0 +1,101 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link LambdaUtilities#dup} and {@link LambdaUtilities#optFilter}
+ * against the equivalent {@link java.util.stream} pipelines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListBenchmark {
+
+    /**
+     * Number of elements of the input list.
+     */
+    @Param({ "10", "10000", "1000000" })
+    private int size;
+
+    /**
+     * Type of the elements of the input list.
+     */
+    @Param
+    private ElementType type;
+
+    private List<Object> list;
+    private UnaryOperator<Object> op;
+    private List<UnaryOperator<Object>> ops;
+    private List<Object> buffer;
+    private Predicate<Object> pre;
+
+    /**
+     * Builds the input list.
+     */
+    @Setup
+    public void setup() {
+        list = type.list(size);
+        op = type.operator();
+        ops = List.of(op);
+        buffer = new ArrayList<>();
+        pre = type.predicate();
+    }
+
+    /**
+     * @return the result of dup
+     */
+    @Benchmark
+    public List<Object> dup() {
+        return LambdaUtilities.dup(list, op);
+    }
+
+    /**
+     * @return the result of a stream-based dup
+     */
+    @Benchmark
+    public List<Object> dupStream() {
+        return list.stream().flatMap(t -> Stream.of(t, op.apply(t))).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the result of dup into a reused buffer
+     */
+    @Benchmark
+    public List<Object> dupInto() {
+        buffer.clear();
+        LambdaUtilities.dupInto(list, ops, buffer);
+        return buffer;
+    }
+
+    /**
+     * @return the result of optFilter
+     */
+    @Benchmark
+    public List<Optional<Object>> optFilter() {
+        return LambdaUtilities.optFilter(list, pre);
+    }
+
+    /**
+     * @return the result of a stream-based optFilter
+     */
+    @Benchmark
+    public List<Optional<Object>> optFilterStream() {
+        return list.stream().map(t -> Optional.of(t).filter(pre)).collect(Collectors.toList());
+    }
+}
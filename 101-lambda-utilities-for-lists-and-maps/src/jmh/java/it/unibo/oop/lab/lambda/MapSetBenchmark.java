@@ -0,0 +1,99 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link LambdaUtilities#fill} and {@link LambdaUtilities#union}
+ * against the equivalent {@link java.util.stream} pipelines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapSetBenchmark {
+
+    /**
+     * Number of entries of the input map, and of elements of each input set.
+     */
+    @Param({ "10", "10000", "1000000" })
+    private int size;
+
+    /**
+     * Type of the values and of the set elements.
+     */
+    @Param
+    private ElementType type;
+
+    private Map<Integer, Optional<Object>> map;
+    private Supplier<Object> def;
+    private Set<Object> set1;
+    private Set<Object> set2;
+
+    /**
+     * Builds the input map, where every other value is missing, and two input
+     * sets overlapping by half.
+     */
+    @Setup
+    public void setup() {
+        final List<Object> list = type.list(size + size / 2);
+        map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(i, i % 2 == 0 ? Optional.of(list.get(i)) : Optional.empty());
+        }
+        final Object defaultValue = type.create(-1);
+        def = () -> defaultValue;
+        set1 = new LinkedHashSet<>(list.subList(0, size));
+        set2 = new LinkedHashSet<>(list.subList(size / 2, size + size / 2));
+    }
+
+    /**
+     * @return the result of fill
+     */
+    @Benchmark
+    public Map<Integer, Object> fill() {
+        return LambdaUtilities.fill(map, def);
+    }
+
+    /**
+     * @return the result of a stream-based fill
+     */
+    @Benchmark
+    public Map<Integer, Object> fillStream() {
+        return map.entrySet().stream().collect(
+            Collectors.toMap(Map.Entry::getKey, e -> e.getValue().orElseGet(def), (a, b) -> a, LinkedHashMap::new)
+        );
+    }
+
+    /**
+     * @return the result of union
+     */
+    @Benchmark
+    public Set<Object> union() {
+        return LambdaUtilities.union(set1, set2);
+    }
+
+    /**
+     * @return the result of a stream-based union
+     */
+    @Benchmark
+    public Set<Object> unionStream() {
+        return Stream.concat(set1.stream(), set2.stream()).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
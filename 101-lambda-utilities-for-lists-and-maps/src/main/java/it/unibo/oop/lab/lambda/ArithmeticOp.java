@@ -0,0 +1,142 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * An arithmetic operation with a constant operand, such as x + 3.
+ *
+ * Unlike an opaque lambda, it can be inspected, and thus translated into
+ * vector instructions by {@link VectorKernels}. It can still be used wherever
+ * an {@link IntUnaryOperator} or a {@link LongUnaryOperator} is expected,
+ * through {@link #asIntOperator()} and {@link #asLongOperator()}.
+ */
+public final class ArithmeticOp {
+
+    private final Kind kind;
+    private final long operand;
+
+    private ArithmeticOp(final Kind kind, final long operand) {
+        this.kind = kind;
+        this.operand = operand;
+    }
+
+    /**
+     * The supported operations.
+     */
+    public enum Kind {
+        /**
+         * x + operand.
+         */
+        ADD,
+        /**
+         * x - operand.
+         */
+        SUB,
+        /**
+         * x * operand.
+         */
+        MUL,
+        /**
+         * x &amp; operand.
+         */
+        AND,
+        /**
+         * x | operand.
+         */
+        OR,
+        /**
+         * x ^ operand.
+         */
+        XOR,
+        /**
+         * min(x, operand).
+         */
+        MIN,
+        /**
+         * max(x, operand).
+         */
+        MAX
+    }
+
+    /**
+     * @param kind    the operation
+     * @param operand the constant operand; it is truncated when applied to ints
+     * @return the operation x kind operand
+     */
+    public static ArithmeticOp of(final Kind kind, final long operand) {
+        return new ArithmeticOp(kind, operand);
+    }
+
+    /**
+     * @return the operation
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the constant operand
+     */
+    public long getOperand() {
+        return operand;
+    }
+
+    /**
+     * @param x an int
+     * @return the result of the operation, with the operand truncated to int
+     */
+    public int applyAsInt(final int x) {
+        return (int) applyAsLong(x, (int) operand);
+    }
+
+    /**
+     * @param x a long
+     * @return the result of the operation
+     */
+    public long applyAsLong(final long x) {
+        return applyAsLong(x, operand);
+    }
+
+    /**
+     * @return this operation, as an {@link IntUnaryOperator}
+     */
+    public IntUnaryOperator asIntOperator() {
+        return this::applyAsInt;
+    }
+
+    /**
+     * @return this operation, as a {@link LongUnaryOperator}
+     */
+    public LongUnaryOperator asLongOperator() {
+        return this::applyAsLong;
+    }
+
+    private long applyAsLong(final long x, final long y) {
+        switch (kind) {
+            case ADD:
+                return x + y;
+            case SUB:
+                return x - y;
+            case MUL:
+                return x * y;
+            case AND:
+                return x & y;
+            case OR:
+                return x | y;
+            case XOR:
+                return x ^ y;
+            case MIN:
+                return Math.min(x, y);
+            case MAX:
+                return Math.max(x, y);
+            default:
+                throw new IllegalStateException("Unexpected operation: " + kind);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "x " + kind + " " + operand;
+    }
+}
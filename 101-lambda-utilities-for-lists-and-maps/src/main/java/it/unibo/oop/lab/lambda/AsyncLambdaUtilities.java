@@ -0,0 +1,208 @@
+package it.unibo.oop.lab.lambda;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Asynchronous versions of {@link LambdaUtilities#dup} and
+ * {@link LambdaUtilities#group}, for operators that block, e.g. on a cache or
+ * a database: up to a given number of calls run at the same time, so that the
+ * latency is no longer the sum of the latencies of all calls.
+ *
+ * Calls run on virtual threads when the runtime supports them (Java 21+), and
+ * on a pool of platform threads otherwise; each call takes a single thread.
+ * Each call that takes longer than the timeout is interrupted, and makes the
+ * whole result fail with a {@link TimeoutException}. Results keep the order of
+ * the sequential versions. Once closed, new operations fail with a
+ * {@link RejectedExecutionException}, as do the ones still running.
+ */
+public final class AsyncLambdaUtilities implements AutoCloseable {
+
+    private final ExecutorService executor = newExecutor();
+    private final int maxConcurrency;
+    private final Duration timeout;
+
+    /**
+     * @param maxConcurrency the maximum number of concurrent calls to an
+     *                       operator, for each operation
+     * @param timeout        the maximum duration of each call
+     */
+    public AsyncLambdaUtilities(final int maxConcurrency, final Duration timeout) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The concurrency limit must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.timeout = Objects.requireNonNull(timeout);
+    }
+
+    /**
+     * @param list the input list
+     * @param op   the process to run on each element, which may block
+     * @param <T>  element type
+     * @return a future of the same result of
+     *         {@link LambdaUtilities#dup(List, UnaryOperator)}
+     */
+    public <T> CompletableFuture<List<T>> dup(final List<T> list, final UnaryOperator<T> op) {
+        final List<T> src = randomAccess(list);
+        return applyAll(src, op).thenApply(processed -> {
+            final List<T> l = new ArrayList<>(src.size() * 2);
+            for (int i = 0; i < src.size(); i++) {
+                l.add(src.get(i));
+                l.add(processed.get(i));
+            }
+            return l;
+        });
+    }
+
+    /**
+     * @param list the input list
+     * @param op   a function that, for each element, computes a key, and which
+     *             may block
+     * @param <T>  element type
+     * @param <R>  key type
+     * @return a future of the same result of
+     *         {@link LambdaUtilities#group(List, Function)}
+     */
+    public <R, T> CompletableFuture<Map<R, Set<T>>> group(final List<T> list, final Function<T, R> op) {
+        final List<T> src = randomAccess(list);
+        return applyAll(src, op).thenApply(keys -> GroupAccumulator.group(src, keys));
+    }
+
+    /**
+     * Interrupts the running calls and releases the threads: the operations
+     * still running fail.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /*
+     * Applies fn to every element, with at most maxConcurrency lanes, each
+     * taking the next index to process once its previous call completes,
+     * until there are none left.
+     */
+    private <T, U> CompletableFuture<List<U>> applyAll(final List<T> src, final Function<T, U> fn) {
+        final Object[] results = new Object[src.size()];
+        final AtomicInteger next = new AtomicInteger();
+        final CompletableFuture<List<U>> result = new CompletableFuture<>();
+        final int lanes = Math.min(maxConcurrency, src.size());
+        final CompletableFuture<?>[] running = new CompletableFuture<?>[lanes];
+        for (int l = 0; l < lanes; l++) {
+            running[l] = lane(src, fn, results, next, result).whenComplete((v, t) -> {
+                if (t != null) {
+                    /*
+                     * The first failure fails the result, and stops the other
+                     * lanes.
+                     */
+                    result.completeExceptionally(unwrap(t));
+                }
+            });
+        }
+        CompletableFuture.allOf(running).whenComplete((v, t) -> {
+            if (t != null) {
+                result.completeExceptionally(unwrap(t));
+            } else {
+                result.complete(view(results));
+            }
+        });
+        return result;
+    }
+
+    /*
+     * The next call of a lane is chained asynchronously, so that the stack
+     * does not grow with the number of calls, and the failure to submit it
+     * (e.g. after close) fails the lane instead of being lost.
+     */
+    private <T, U> CompletableFuture<Void> lane(final List<T> src, final Function<T, U> fn, final Object[] results,
+            final AtomicInteger next, final CompletableFuture<?> result) {
+        final int i = next.getAndIncrement();
+        if (i >= results.length || result.isDone()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return call(fn, src.get(i)).thenComposeAsync(value -> {
+                results[i] = value;
+                return lane(src, fn, results, next, result);
+            }, executor);
+        } catch (final RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /*
+     * Runs a single task for the call: the timeout is applied to its future,
+     * by the scheduler of CompletableFuture, and interrupts the task, without
+     * a thread waiting for it.
+     */
+    private <T, U> CompletableFuture<U> call(final Function<T, U> fn, final T element) {
+        final CompletableFuture<U> call = new CompletableFuture<>();
+        final Future<?> task = executor.submit(() -> {
+            try {
+                call.complete(fn.apply(element));
+            } catch (final Throwable e) { // NOPMD
+                /*
+                 * Errors too, or the call would only fail at its timeout.
+                 */
+                call.completeExceptionally(e);
+            }
+        });
+        return call.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).whenComplete((value, t) -> {
+            if (t instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+    }
+
+    private static Throwable unwrap(final Throwable t) {
+        Throwable cause = t;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static <T> List<T> randomAccess(final List<T> list) {
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
+    }
+
+    /*
+     * The array is only filled with results of the function.
+     */
+    @SuppressWarnings("unchecked")
+    private static <U> List<U> view(final Object[] results) {
+        return (List<U>) Arrays.asList(results);
+    }
+
+    /*
+     * Executors.newVirtualThreadPerTaskExecutor only exists since Java 21.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                final Thread thread = new Thread(r, "async-lambda-utilities");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
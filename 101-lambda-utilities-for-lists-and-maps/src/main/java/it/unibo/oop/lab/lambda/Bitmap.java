@@ -0,0 +1,85 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Arrays;
+
+/**
+ * Helpers to use a long[] as a bitmap with one bit per index.
+ */
+final class Bitmap {
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = Long.SIZE - 1;
+
+    private Bitmap() {
+    }
+
+    /**
+     * @param size the number of bits
+     * @return an all-clear bitmap holding size bits
+     */
+    static long[] create(final int size) {
+        return new long[(size + WORD_MASK) >>> WORD_SHIFT];
+    }
+
+    /**
+     * @param bits the bitmap
+     * @param size the number of bits it must hold
+     * @return the bitmap itself, if large enough, or a larger copy of it
+     */
+    static long[] ensureSize(final long[] bits, final int size) {
+        final int words = (size + WORD_MASK) >>> WORD_SHIFT;
+        return words <= bits.length ? bits : Arrays.copyOf(bits, Math.max(words, bits.length * 2));
+    }
+
+    /**
+     * @param bits  the bitmap
+     * @param index the index of the bit to set
+     */
+    static void set(final long[] bits, final int index) {
+        bits[index >>> WORD_SHIFT] |= 1L << index;
+    }
+
+    /**
+     * @param bits  the bitmap
+     * @param index the index of the bit to read
+     * @return true if the bit is set
+     */
+    static boolean get(final long[] bits, final int index) {
+        return (bits[index >>> WORD_SHIFT] & 1L << index) != 0;
+    }
+
+    /**
+     * @param bits the bitmap
+     * @return the number of bits that are set
+     */
+    static int count(final long[] bits) {
+        int count = 0;
+        for (final long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param bits the bitmap
+     * @param from the first index to consider
+     * @param size the number of bits of the bitmap
+     * @return the index of the first set bit at or after from, or size if
+     *         there is none
+     */
+    static int next(final long[] bits, final int from, final int size) {
+        if (from >= size) {
+            return size;
+        }
+        int word = from >>> WORD_SHIFT;
+        long current = bits[word] & -1L << from;
+        while (current == 0) {
+            word++;
+            if (word == bits.length) {
+                return size;
+            }
+            current = bits[word];
+        }
+        return Math.min(size, (word << WORD_SHIFT) + Long.numberOfTrailingZeros(current));
+    }
+}
@@ -0,0 +1,130 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * A comparison with a constant operand, such as x &lt; 3.
+ *
+ * Unlike an opaque lambda, it can be inspected, and thus translated into
+ * vector instructions by {@link VectorKernels}. It can still be used wherever
+ * an {@link IntPredicate} or a {@link LongPredicate} is expected, through
+ * {@link #asIntPredicate()} and {@link #asLongPredicate()}.
+ */
+public final class Comparison {
+
+    private final Kind kind;
+    private final long operand;
+
+    private Comparison(final Kind kind, final long operand) {
+        this.kind = kind;
+        this.operand = operand;
+    }
+
+    /**
+     * The supported comparisons.
+     */
+    public enum Kind {
+        /**
+         * x == operand.
+         */
+        EQ,
+        /**
+         * x != operand.
+         */
+        NE,
+        /**
+         * x &lt; operand.
+         */
+        LT,
+        /**
+         * x &lt;= operand.
+         */
+        LE,
+        /**
+         * x &gt; operand.
+         */
+        GT,
+        /**
+         * x &gt;= operand.
+         */
+        GE
+    }
+
+    /**
+     * @param kind    the comparison
+     * @param operand the constant operand; it is truncated when compared to ints
+     * @return the comparison x kind operand
+     */
+    public static Comparison of(final Kind kind, final long operand) {
+        return new Comparison(kind, operand);
+    }
+
+    /**
+     * @return the comparison
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the constant operand
+     */
+    public long getOperand() {
+        return operand;
+    }
+
+    /**
+     * @param x an int
+     * @return the outcome of the comparison, with the operand truncated to int
+     */
+    public boolean test(final int x) {
+        return test(x, (int) operand);
+    }
+
+    /**
+     * @param x a long
+     * @return the outcome of the comparison
+     */
+    public boolean test(final long x) {
+        return test(x, operand);
+    }
+
+    /**
+     * @return this comparison, as an {@link IntPredicate}
+     */
+    public IntPredicate asIntPredicate() {
+        return x -> test(x);
+    }
+
+    /**
+     * @return this comparison, as a {@link LongPredicate}
+     */
+    public LongPredicate asLongPredicate() {
+        return x -> test(x);
+    }
+
+    private boolean test(final long x, final long y) {
+        switch (kind) {
+            case EQ:
+                return x == y;
+            case NE:
+                return x != y;
+            case LT:
+                return x < y;
+            case LE:
+                return x <= y;
+            case GT:
+                return x > y;
+            case GE:
+                return x >= y;
+            default:
+                throw new IllegalStateException("Unexpected comparison: " + kind);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "x " + kind + " " + operand;
+    }
+}
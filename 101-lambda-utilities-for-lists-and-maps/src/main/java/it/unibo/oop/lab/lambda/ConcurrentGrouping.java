@@ -0,0 +1,71 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe grouping, that many threads can feed at once, producing the
+ * same shape of result of {@link LambdaUtilities#group}.
+ *
+ * Buckets are concurrent sets held in a {@link ConcurrentHashMap}, so adding
+ * never locks the whole grouping: threads only contend when they add to the
+ * same bucket. Since elements come from several threads, keys and elements
+ * have no defined order.
+ *
+ * @param <T> element type
+ * @param <R> key type
+ */
+public final class ConcurrentGrouping<T, R> {
+
+    private final Function<T, R> op;
+    private final ConcurrentMap<R, Set<T>> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param op a function that, for each element, computes a key; it may be
+     *           called concurrently
+     */
+    public ConcurrentGrouping(final Function<T, R> op) {
+        this.op = Objects.requireNonNull(op);
+    }
+
+    /**
+     * @param element the element to add; must not be null
+     */
+    public void add(final T element) {
+        buckets.computeIfAbsent(op.apply(element), k -> ConcurrentHashMap.newKeySet()).add(element);
+    }
+
+    /**
+     * @param elements the elements to add; none of them can be null
+     */
+    public void addAll(final Iterable<? extends T> elements) {
+        elements.forEach(this::add);
+    }
+
+    /**
+     * @return the number of keys found so far
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Copies the grouping. Elements added concurrently with this call may or
+     * may not be part of the snapshot.
+     *
+     * @return an immutable copy of the elements grouped so far, in the format
+     *         of {@link LambdaUtilities#group}
+     */
+    public Map<R, Set<T>> snapshot() {
+        final Map<R, Set<T>> snapshot = new LinkedHashMap<>(GroupAccumulator.capacity(buckets.size()));
+        buckets.forEach((k, s) -> snapshot.put(k, Collections.unmodifiableSet(new LinkedHashSet<>(s))));
+        return Collections.unmodifiableMap(snapshot);
+    }
+}
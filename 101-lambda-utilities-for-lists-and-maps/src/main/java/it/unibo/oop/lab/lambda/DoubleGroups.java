@@ -0,0 +1,84 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The result of grouping a double[] by a double key: the primitive counterpart
+ * of the map returned by {@link LambdaUtilities#group}.
+ *
+ * Keys and values are held as their {@link Double#doubleToLongBits} patterns,
+ * so they compare as {@link Double#equals} does: NaN is equal to itself, and
+ * 0.0 differs from -0.0. No value is ever boxed.
+ */
+public final class DoubleGroups {
+
+    private final LongLinkedSet keys;
+    private LongLinkedSet[] buckets;
+
+    /**
+     * @param expected the expected number of keys
+     */
+    DoubleGroups(final int expected) {
+        keys = new LongLinkedSet(expected);
+        buckets = new LongLinkedSet[Math.max(1, expected)];
+    }
+
+    /**
+     * @param key   the key of the value
+     * @param value the value to add to the bucket of key
+     */
+    void add(final double key, final double value) {
+        final int index = keys.add(Double.doubleToLongBits(key));
+        if (index == buckets.length) {
+            buckets = Arrays.copyOf(buckets, index * 2);
+        }
+        if (buckets[index] == null) {
+            buckets[index] = new LongLinkedSet(1);
+        }
+        buckets[index].add(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return the keys, in the order in which they were first found
+     */
+    public double[] keys() {
+        return toDoubles(keys);
+    }
+
+    /**
+     * @param key the key
+     * @return true if some value has that key
+     */
+    public boolean containsKey(final double key) {
+        return keys.indexOf(Double.doubleToLongBits(key)) >= 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the distinct values having that key, in encounter order
+     * @throws NoSuchElementException if no value has that key
+     */
+    public double[] get(final double key) {
+        final int index = keys.indexOf(Double.doubleToLongBits(key));
+        if (index < 0) {
+            throw new NoSuchElementException("No such key: " + key);
+        }
+        return toDoubles(buckets[index]);
+    }
+
+    private static double[] toDoubles(final LongLinkedSet set) {
+        final double[] out = new double[set.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Double.longBitsToDouble(set.get(i));
+        }
+        return out;
+    }
+}
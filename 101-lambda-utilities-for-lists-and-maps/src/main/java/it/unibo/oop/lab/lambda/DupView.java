@@ -0,0 +1,77 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.UnaryOperator;
+
+/**
+ * A read-only view of the result of {@link LambdaUtilities#dup}, backed by the
+ * source list: the processed elements are computed when they are accessed.
+ *
+ * When memoizing, the processed elements are kept by index: elements added to
+ * the source are processed when first accessed, but an element replaced in
+ * the source keeps the processed value of the previous one.
+ *
+ * @param <T> element type
+ */
+final class DupView<T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<T> source;
+    private final UnaryOperator<T> op;
+    /*
+     * If memoizing, the processed element of each source element, and which
+     * ones have already been computed.
+     */
+    private Object[] processed;
+    private long[] computed;
+
+    /**
+     * @param source  the source list, which should be random access
+     * @param op      the process to run on each element
+     * @param memoize true if each processed element must be computed at most
+     *                once
+     */
+    DupView(final List<T> source, final UnaryOperator<T> op, final boolean memoize) {
+        this.source = source;
+        this.op = op;
+        processed = memoize ? new Object[source.size()] : null;
+        computed = memoize ? Bitmap.create(source.size()) : null;
+    }
+
+    @Override
+    public T get(final int index) {
+        Objects.checkIndex(index, size());
+        final T element = source.get(index / 2);
+        return index % 2 == 0 ? element : process(index / 2, element);
+    }
+
+    @Override
+    public int size() {
+        return source.size() * 2;
+    }
+
+    /*
+     * Slots only hold results of op.
+     */
+    @SuppressWarnings("unchecked")
+    private T process(final int index, final T element) {
+        if (processed == null) {
+            return op.apply(element);
+        }
+        if (index >= processed.length) {
+            /*
+             * The source has grown.
+             */
+            processed = Arrays.copyOf(processed, Math.max(source.size(), processed.length * 2));
+            computed = Bitmap.ensureSize(computed, processed.length);
+        }
+        if (!Bitmap.get(computed, index)) {
+            processed[index] = op.apply(element);
+            Bitmap.set(computed, index);
+        }
+        return (T) processed[index];
+    }
+}
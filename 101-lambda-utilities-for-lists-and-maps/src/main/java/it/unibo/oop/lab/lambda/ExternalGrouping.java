@@ -0,0 +1,461 @@
+package it.unibo.oop.lab.lambda;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Groups inputs too large for {@link LambdaUtilities#group}, under a memory
+ * budget.
+ *
+ * Elements are buffered in memory; if the budget is exceeded, every buffered
+ * (key, element) pair is appended to one of several partition files on disk,
+ * chosen by the hash of the key, so that all the elements of a key end up in
+ * the same partition. The partitions are then read back one at a time, and
+ * grouped in memory. A partition holding more elements than the budget, e.g.
+ * because of a skewed key distribution, is not loaded: it is streamed into
+ * new partitions, with a different hash, until they fit. The only partitions
+ * loaded over budget are those that cannot be split, because all their keys
+ * have the same hash code: the budget must thus allow for the largest
+ * bucket, that is returned whole anyway.
+ *
+ * Buckets are returned one at a time by a {@link Cursor}, partition by
+ * partition: within a partition keys and elements keep their encounter order.
+ *
+ * @param <T> element type
+ * @param <R> key type
+ */
+public final class ExternalGrouping<T, R> {
+
+    /**
+     * Serializer for {@link Integer}s.
+     */
+    public static final Serializer<Integer> INTEGERS = new Serializer<>() {
+        @Override
+        public void write(final Integer value, final DataOutput out) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public Integer read(final DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    /**
+     * Serializer for {@link Long}s.
+     */
+    public static final Serializer<Long> LONGS = new Serializer<>() {
+        @Override
+        public void write(final Long value, final DataOutput out) throws IOException {
+            out.writeLong(value);
+        }
+
+        @Override
+        public Long read(final DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    /**
+     * Serializer for {@link String}s, of any length, encoded in UTF-8.
+     */
+    public static final Serializer<String> STRINGS = new Serializer<>() {
+        @Override
+        public void write(final String value, final DataOutput out) throws IOException {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(final DataInput in) throws IOException {
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private static final int DEFAULT_PARTITIONS = 64;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /*
+     * Constants of the 32-bit finalizer of MurmurHash3, that spreads the hash
+     * codes of the keys, and of the golden ratio, that changes them at each
+     * level of repartitioning.
+     */
+    private static final int SEED = 0x9E3779B9;
+    private static final int MIX1 = 0x85EBCA6B;
+    private static final int MIX2 = 0xC2B2AE35;
+    private static final int SHIFT1 = 16;
+    private static final int SHIFT2 = 13;
+
+    private final Function<T, R> op;
+    private final Serializer<R> keys;
+    private final Serializer<T> elements;
+    private final int budget;
+    private final int partitions;
+
+    /**
+     * @param op       a function that, for each element, computes a key
+     * @param keys     the serializer of the keys
+     * @param elements the serializer of the elements
+     * @param budget   the maximum number of elements to hold in memory
+     */
+    public ExternalGrouping(final Function<T, R> op, final Serializer<R> keys, final Serializer<T> elements,
+            final int budget) {
+        this(op, keys, elements, budget, DEFAULT_PARTITIONS);
+    }
+
+    /**
+     * @param op         a function that, for each element, computes a key
+     * @param keys       the serializer of the keys
+     * @param elements   the serializer of the elements
+     * @param budget     the maximum number of elements to hold in memory
+     * @param partitions the number of partitions to spill to
+     */
+    public ExternalGrouping(final Function<T, R> op, final Serializer<R> keys, final Serializer<T> elements,
+            final int budget, final int partitions) {
+        if (budget <= 0 || partitions <= 0) {
+            throw new IllegalArgumentException("Budget and partitions must be positive");
+        }
+        this.op = Objects.requireNonNull(op);
+        this.keys = Objects.requireNonNull(keys);
+        this.elements = Objects.requireNonNull(elements);
+        this.budget = budget;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Consumes the whole source, spilling to temporary files if needed.
+     *
+     * @param source the input elements
+     * @return a cursor over the buckets, to be closed to delete the temporary
+     *         files
+     * @throws IOException if the temporary files cannot be written
+     */
+    public Cursor<R, T> group(final Iterator<T> source) throws IOException {
+        final List<R> bufferedKeys = new ArrayList<>();
+        final List<T> buffered = new ArrayList<>();
+        Spill spill = null;
+        try {
+            while (source.hasNext()) {
+                final T element = source.next();
+                bufferedKeys.add(op.apply(element));
+                buffered.add(element);
+                if (buffered.size() >= budget) {
+                    if (spill == null) {
+                        spill = new Spill();
+                    }
+                    spill.write(bufferedKeys, buffered);
+                    bufferedKeys.clear();
+                    buffered.clear();
+                }
+            }
+            if (spill == null) {
+                return new Cursor<>(GroupAccumulator.group(buffered, bufferedKeys).entrySet().iterator(), null,
+                        buffered.size());
+            }
+            spill.write(bufferedKeys, buffered);
+            spill.close();
+        } catch (final IOException | RuntimeException e) {
+            if (spill != null) {
+                spill.delete();
+            }
+            throw e;
+        }
+        return new Cursor<>(spill.read(), spill, 0);
+    }
+
+    /**
+     * Writes and reads (key, element) pairs to and from partition files. The
+     * partitions of a spill too large for the budget are spilled again, in the
+     * same directory, one level deeper.
+     */
+    private final class Spill {
+
+        private final Path directory;
+        private final String prefix;
+        private final int level;
+        /*
+         * The number of elements in the largest partition loaded in memory so
+         * far, shared by all the levels.
+         */
+        private final long[] largestLoad;
+        private final Path[] files = new Path[partitions];
+        private final DataOutputStream[] outputs = new DataOutputStream[partitions];
+        private final long[] counts = new long[partitions];
+        private long size;
+
+        Spill() throws IOException {
+            this(Files.createTempDirectory("group"), "partition-", 0, new long[1]);
+        }
+
+        private Spill(final Path directory, final String prefix, final int level, final long[] largestLoad)
+                throws IOException {
+            this.directory = directory;
+            this.prefix = prefix;
+            this.level = level;
+            this.largestLoad = largestLoad;
+            try {
+                for (int i = 0; i < partitions; i++) {
+                    files[i] = directory.resolve(prefix + i);
+                    outputs[i] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(files[i]),
+                            BUFFER_SIZE));
+                }
+            } catch (final IOException | RuntimeException e) {
+                discard(e);
+                throw e;
+            }
+        }
+
+        /*
+         * Closes and deletes the partitions opened by a constructor that
+         * failed, and the directory if it was created for this spill: the
+         * deeper levels share it with the files of their parent.
+         */
+        private void discard(final Exception failure) {
+            for (int i = 0; i < partitions; i++) {
+                try {
+                    if (outputs[i] != null) {
+                        outputs[i].close();
+                    }
+                    if (files[i] != null) {
+                        Files.deleteIfExists(files[i]);
+                    }
+                } catch (final IOException e) {
+                    failure.addSuppressed(e);
+                }
+            }
+            if (level == 0) {
+                try {
+                    Files.deleteIfExists(directory);
+                } catch (final IOException e) {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        void write(final List<R> bufferedKeys, final List<T> buffered) throws IOException {
+            for (int i = 0; i < buffered.size(); i++) {
+                write(bufferedKeys.get(i), buffered.get(i));
+            }
+        }
+
+        private void write(final R key, final T element) throws IOException {
+            final int partition = partition(key);
+            final DataOutputStream out = outputs[partition];
+            keys.write(key, out);
+            elements.write(element, out);
+            counts[partition]++;
+            size++;
+        }
+
+        /*
+         * Spreads the hash code of the key, differently at each level, so that
+         * the keys of a partition are split among the partitions of the next.
+         */
+        private int partition(final R key) {
+            int h = Objects.hashCode(key) + level * SEED;
+            h ^= h >>> SHIFT1;
+            h *= MIX1;
+            h ^= h >>> SHIFT2;
+            h *= MIX2;
+            h ^= h >>> SHIFT1;
+            return Math.floorMod(h, partitions);
+        }
+
+        void close() throws IOException {
+            for (final DataOutputStream out : outputs) {
+                out.close();
+            }
+        }
+
+        Iterator<Map.Entry<R, Set<T>>> read() {
+            return new Iterator<>() {
+
+                private int partition;
+                private Iterator<Map.Entry<R, Set<T>>> current = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!current.hasNext() && partition < partitions) {
+                        current = load(partition++);
+                    }
+                    return current.hasNext();
+                }
+
+                @Override
+                public Map.Entry<R, Set<T>> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return current.next();
+                }
+            };
+        }
+
+        /*
+         * A partition is split if it exceeds the budget, unless it holds the
+         * whole spill: then the hash of this level did not separate its keys,
+         * and neither would the next ones.
+         */
+        private Iterator<Map.Entry<R, Set<T>>> load(final int partition) {
+            try {
+                if (counts[partition] > budget && counts[partition] < size) {
+                    return split(partition).read();
+                }
+                return loadInMemory(partition);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private Spill split(final int partition) throws IOException {
+            final Spill next = new Spill(directory, prefix + partition + "-", level + 1, largestLoad);
+            try (DataInputStream in = open(partition)) {
+                for (long i = 0; i < counts[partition]; i++) {
+                    next.write(keys.read(in), elements.read(in));
+                }
+            } finally {
+                next.close();
+            }
+            Files.delete(files[partition]);
+            return next;
+        }
+
+        private Iterator<Map.Entry<R, Set<T>>> loadInMemory(final int partition) throws IOException {
+            final int count = (int) counts[partition];
+            final List<R> partitionKeys = new ArrayList<>(count);
+            final List<T> partitionElements = new ArrayList<>(count);
+            try (DataInputStream in = open(partition)) {
+                for (int i = 0; i < count; i++) {
+                    partitionKeys.add(keys.read(in));
+                    partitionElements.add(elements.read(in));
+                }
+            }
+            Files.delete(files[partition]);
+            largestLoad[0] = Math.max(largestLoad[0], count);
+            return GroupAccumulator.group(partitionElements, partitionKeys).entrySet().iterator();
+        }
+
+        private DataInputStream open(final int partition) throws IOException {
+            return new DataInputStream(new BufferedInputStream(Files.newInputStream(files[partition]), BUFFER_SIZE));
+        }
+
+        /*
+         * Deletes the files of all the levels.
+         */
+        void delete() throws IOException {
+            for (final DataOutputStream out : outputs) {
+                if (out != null) {
+                    out.close();
+                }
+            }
+            try (Stream<Path> remaining = Files.list(directory)) {
+                for (final Path file : (Iterable<Path>) remaining::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * Converts values to and from bytes, to spill them to disk.
+     *
+     * @param <E> the type of the values
+     */
+    public interface Serializer<E> {
+
+        /**
+         * @param value the value to write
+         * @param out   the destination
+         * @throws IOException if the value cannot be written
+         */
+        void write(E value, DataOutput out) throws IOException;
+
+        /**
+         * @param in the source
+         * @return the next value
+         * @throws IOException if the value cannot be read
+         */
+        E read(DataInput in) throws IOException;
+    }
+
+    /**
+     * An iterator over the (key, bucket) pairs of a grouping. Closing it
+     * deletes the temporary files that have not been read yet.
+     *
+     * @param <R> key type
+     * @param <T> element type
+     */
+    public static final class Cursor<R, T> implements Iterator<Map.Entry<R, Set<T>>>, AutoCloseable {
+
+        private final Iterator<Map.Entry<R, Set<T>>> entries;
+        private final ExternalGrouping<T, R>.Spill spill;
+        private final long inMemory;
+
+        private Cursor(final Iterator<Map.Entry<R, Set<T>>> entries, final ExternalGrouping<T, R>.Spill spill,
+                final long inMemory) {
+            this.entries = entries;
+            this.spill = spill;
+            this.inMemory = inMemory;
+        }
+
+        /**
+         * @return true if the grouping had to be spilled to disk
+         */
+        public boolean isSpilled() {
+            return spill != null;
+        }
+
+        /**
+         * @return the number of elements of the largest partition read back in
+         *         memory so far, or of the whole input if it was not spilled
+         */
+        public long getLargestLoad() {
+            return spill == null ? inMemory : spill.largestLoad[0];
+        }
+
+        /**
+         * @throws UncheckedIOException if a partition cannot be read
+         */
+        @Override
+        public boolean hasNext() {
+            return entries.hasNext();
+        }
+
+        /**
+         * @throws UncheckedIOException if a partition cannot be read
+         */
+        @Override
+        public Map.Entry<R, Set<T>> next() {
+            return entries.next();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (spill != null) {
+                spill.delete();
+            }
+        }
+    }
+}
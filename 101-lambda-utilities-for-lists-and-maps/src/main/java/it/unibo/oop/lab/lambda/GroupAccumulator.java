@@ -0,0 +1,113 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Groups elements into insertion-ordered buckets, by appending each element to
+ * a single mutable set per key.
+ *
+ * Keys keep the order in which they are first seen, and elements the order in
+ * which they are added to their bucket: this is the contract of
+ * {@link LambdaUtilities#group(List, Function)}.
+ *
+ * @param <T> element type
+ * @param <R> key type
+ */
+final class GroupAccumulator<T, R> {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Map<R, Set<T>> buckets = new LinkedHashMap<>();
+
+    /**
+     * Groups a whole list in linear time.
+     *
+     * Keys are computed once per element; a first pass counts the bucket sizes,
+     * so that each bucket is allocated only once, with its final capacity.
+     *
+     * @param list the input list
+     * @param op   the key function
+     * @param <T>  element type
+     * @param <R>  key type
+     * @return the frozen buckets
+     */
+    static <T, R> Map<R, Set<T>> group(final List<T> list, final Function<T, R> op) {
+        final List<R> keys = new ArrayList<>(list.size());
+        list.forEach(t -> keys.add(op.apply(t)));
+        return group(list, keys);
+    }
+
+    /**
+     * Groups a whole list in linear time, given the already computed keys.
+     *
+     * @param list the input list
+     * @param keys the key of each element of list, in the same order
+     * @param <T>  element type
+     * @param <R>  key type
+     * @return the frozen buckets
+     */
+    static <T, R> Map<R, Set<T>> group(final List<T> list, final List<R> keys) {
+        final Map<R, int[]> counts = new LinkedHashMap<>();
+        keys.forEach(key -> counts.computeIfAbsent(key, k -> new int[1])[0]++);
+        final GroupAccumulator<T, R> acc = new GroupAccumulator<>();
+        counts.forEach((k, c) -> acc.expect(k, c[0]));
+        final var it = keys.iterator();
+        list.forEach(t -> acc.add(it.next(), t));
+        return acc.freeze();
+    }
+
+    /**
+     * Creates the bucket of the given key, sized to hold the expected number
+     * of elements without rehashing. Does nothing if the bucket already exists.
+     *
+     * @param key      the key
+     * @param expected the expected number of elements of the bucket
+     */
+    void expect(final R key, final int expected) {
+        buckets.computeIfAbsent(key, k -> newBucket(expected));
+    }
+
+    /**
+     * @param key     the key of the element
+     * @param element the element to append to the bucket of key
+     */
+    void add(final R key, final T element) {
+        buckets.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(element);
+    }
+
+    /**
+     * Makes every bucket unmodifiable. The accumulator must not be used
+     * afterwards.
+     *
+     * @return the map of buckets
+     */
+    Map<R, Set<T>> freeze() {
+        buckets.replaceAll((k, s) -> Collections.unmodifiableSet(s));
+        return buckets;
+    }
+
+    /**
+     * @param expected the expected number of elements
+     * @param <T>      element type
+     * @return an empty set that can hold expected elements without rehashing
+     */
+    static <T> Set<T> newBucket(final int expected) {
+        return new LinkedHashSet<>(capacity(expected));
+    }
+
+    /**
+     * @param expected the expected number of entries
+     * @return the initial capacity a hash table needs to hold expected entries
+     *         without rehashing
+     */
+    static int capacity(final int expected) {
+        return (int) (expected / LOAD_FACTOR) + 1;
+    }
+}
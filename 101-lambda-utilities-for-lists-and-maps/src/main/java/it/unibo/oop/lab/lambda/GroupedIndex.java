@@ -0,0 +1,180 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The result of {@link LambdaUtilities#group}, kept up to date while the
+ * grouped list changes, so that a few changes cost a few updates instead of
+ * a whole regrouping.
+ *
+ * The index counts the occurrences of each element: an element leaves its
+ * bucket only when its last occurrence is removed, and a bucket leaves the map
+ * when its last element does. The key of an element is computed once, when
+ * its first occurrence is added. Not thread-safe.
+ *
+ * Keys are in the order in which their buckets were created, and elements in
+ * the order in which they were added: a key whose bucket empties and fills
+ * again moves to the end, wherever its elements are in the list. The view is
+ * thus equal to the result of {@link LambdaUtilities#group}, as a map, but
+ * its iteration order may differ.
+ *
+ * @param <T> element type
+ * @param <R> key type
+ */
+public final class GroupedIndex<T, R> {
+
+    private final Function<T, R> op;
+    private final Map<T, Occurrences<R>> occurrences;
+    private final Map<R, Set<T>> buckets;
+    private final Map<R, Set<T>> view = new ReadOnlyBuckets();
+
+    /**
+     * @param list the initial elements
+     * @param op   a function that, for each element, computes a key
+     */
+    public GroupedIndex(final List<T> list, final Function<T, R> op) {
+        this.op = Objects.requireNonNull(op);
+        this.occurrences = new HashMap<>(GroupAccumulator.capacity(list.size()));
+        this.buckets = new LinkedHashMap<>();
+        list.forEach(this::add);
+    }
+
+    /**
+     * @param element the element to add
+     * @return true if it was not in the index yet
+     */
+    public boolean add(final T element) {
+        final Occurrences<R> occ = occurrences.get(element);
+        if (occ != null) {
+            occ.count++;
+            return false;
+        }
+        final R key = op.apply(element);
+        occurrences.put(element, new Occurrences<>(key));
+        Set<T> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new LinkedHashSet<>();
+            buckets.put(key, bucket);
+        }
+        bucket.add(element);
+        return true;
+    }
+
+    /**
+     * @param element an occurrence to remove
+     * @return true if it was the last occurrence, and the element left the
+     *         index
+     */
+    public boolean remove(final T element) {
+        final Occurrences<R> occ = occurrences.get(element);
+        if (occ == null) {
+            return false;
+        }
+        if (--occ.count > 0) {
+            return false;
+        }
+        occurrences.remove(element);
+        final Set<T> bucket = buckets.get(occ.key);
+        bucket.remove(element);
+        if (bucket.isEmpty()) {
+            buckets.remove(occ.key);
+        }
+        return true;
+    }
+
+    /**
+     * Replaces an occurrence of an element, e.g. after a list.set.
+     *
+     * @param oldElement the occurrence to remove
+     * @param newElement the occurrence to add
+     */
+    public void update(final T oldElement, final T newElement) {
+        remove(oldElement);
+        add(newElement);
+    }
+
+    /**
+     * @return a live, read-only view of the groups, equal to the result of
+     *         {@link LambdaUtilities#group} on the current elements, in the
+     *         order described above
+     */
+    public Map<R, Set<T>> asMap() {
+        return view;
+    }
+
+    /*
+     * The buckets, each one wrapped as unmodifiable when read.
+     */
+    private final class ReadOnlyBuckets extends AbstractMap<R, Set<T>> {
+
+        private final Set<Map.Entry<R, Set<T>>> entries = new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<R, Set<T>>> iterator() {
+                final Iterator<Map.Entry<R, Set<T>>> it = buckets.entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<R, Set<T>> next() {
+                        final Map.Entry<R, Set<T>> entry = it.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(),
+                                Collections.unmodifiableSet(entry.getValue()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return buckets.size();
+            }
+        };
+
+        @Override
+        public Set<T> get(final Object key) {
+            final Set<T> bucket = buckets.get(key);
+            return bucket == null ? null : Collections.unmodifiableSet(bucket);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return buckets.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return buckets.size();
+        }
+
+        @Override
+        public Set<Map.Entry<R, Set<T>>> entrySet() {
+            return entries;
+        }
+    }
+
+    /**
+     * The key of an element and its number of occurrences.
+     */
+    private static final class Occurrences<R> {
+
+        private final R key;
+        private int count = 1;
+
+        Occurrences(final R key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The result of grouping an int[] by an int key: the primitive counterpart of
+ * the map returned by {@link LambdaUtilities#group}.
+ *
+ * Keys are held in an open-addressing table, and each bucket is an
+ * insertion-ordered set of ints: no value is ever boxed.
+ */
+public final class IntGroups {
+
+    private final IntLinkedSet keys;
+    private IntLinkedSet[] buckets;
+
+    /**
+     * @param expected the expected number of keys
+     */
+    IntGroups(final int expected) {
+        keys = new IntLinkedSet(expected);
+        buckets = new IntLinkedSet[Math.max(1, expected)];
+    }
+
+    /**
+     * @param key   the key of the value
+     * @param value the value to add to the bucket of key
+     */
+    void add(final int key, final int value) {
+        final int index = keys.add(key);
+        if (index == buckets.length) {
+            buckets = Arrays.copyOf(buckets, index * 2);
+        }
+        if (buckets[index] == null) {
+            buckets[index] = new IntLinkedSet(1);
+        }
+        buckets[index].add(value);
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return the keys, in the order in which they were first found
+     */
+    public int[] keys() {
+        return keys.toArray();
+    }
+
+    /**
+     * @param key the key
+     * @return true if some value has that key
+     */
+    public boolean containsKey(final int key) {
+        return keys.indexOf(key) >= 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the distinct values having that key, in encounter order
+     * @throws NoSuchElementException if no value has that key
+     */
+    public int[] get(final int key) {
+        final int index = keys.indexOf(key);
+        if (index < 0) {
+            throw new NoSuchElementException("No such key: " + key);
+        }
+        return buckets[index].toArray();
+    }
+}
@@ -0,0 +1,32 @@
+package it.unibo.oop.lab.lambda;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted for each call to a {@link LambdaUtilities}
+ * method, when {@link LambdaMetrics} is enabled. Its duration is the elapsed
+ * time of the call.
+ */
+@Name("it.unibo.oop.lab.lambda.Invocation")
+@Label("Lambda Utilities Invocation")
+@Category("Lambda Utilities")
+@Description("A call to a LambdaUtilities method")
+final class InvocationEvent extends Event {
+
+    @Label("Method")
+    String method; // NOPMD: fields of events are recorded by JFR
+
+    @Label("Input Size")
+    int inputSize; // NOPMD
+
+    @Label("Output Size")
+    int outputSize; // NOPMD
+
+    @Label("Buckets")
+    @Description("Number of keys, for group")
+    int buckets; // NOPMD
+}
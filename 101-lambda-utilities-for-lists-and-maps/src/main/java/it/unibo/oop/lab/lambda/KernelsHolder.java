@@ -0,0 +1,31 @@
+package it.unibo.oop.lab.lambda;
+
+/**
+ * Lazily picks the {@link VectorKernels} implementation. The SIMD one is only
+ * loaded through reflection, as it cannot be linked without the
+ * jdk.incubator.vector module.
+ */
+final class KernelsHolder {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String SIMD_KERNELS = "it.unibo.oop.lab.lambda.SimdKernels";
+
+    /**
+     * The kernels in use.
+     */
+    static final VectorKernels INSTANCE = load();
+
+    private KernelsHolder() {
+    }
+
+    private static VectorKernels load() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (VectorKernels) Class.forName(SIMD_KERNELS).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return new ScalarKernels();
+            }
+        }
+        return new ScalarKernels();
+    }
+}
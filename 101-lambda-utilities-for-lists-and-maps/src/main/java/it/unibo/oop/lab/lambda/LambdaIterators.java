@@ -0,0 +1,155 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Streaming versions of {@link LambdaUtilities}, for sources that do not fit
+ * in memory, such as files or database cursors.
+ *
+ * dup and optFilter either return a lazy iterator, or push their results into
+ * a sink: in both cases they only hold one element at a time. group folds the
+ * elements into a map, which may be filled incrementally by several calls.
+ */
+public final class LambdaIterators {
+
+    private LambdaIterators() {
+    }
+
+    /**
+     * @param source the input elements
+     * @param op     the process to run on each element
+     * @param <T>    element type
+     * @return a lazy iterator over each element of source followed by its
+     *         processed version
+     */
+    public static <T> Iterator<T> dup(final Iterator<T> source, final UnaryOperator<T> op) {
+        return new Iterator<>() {
+
+            private T processed;
+            private boolean pending;
+
+            @Override
+            public boolean hasNext() {
+                return pending || source.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (pending) {
+                    pending = false;
+                    final T result = processed;
+                    processed = null;
+                    return result;
+                }
+                final T element = source.next();
+                processed = op.apply(element);
+                pending = true;
+                return element;
+            }
+        };
+    }
+
+    /**
+     * @param source the input elements
+     * @param op     the process to run on each element
+     * @param sink   receives each element of source followed by its processed
+     *               version
+     * @param <T>    element type
+     */
+    public static <T> void dup(final Spliterator<T> source, final UnaryOperator<T> op, final Consumer<? super T> sink) {
+        source.forEachRemaining(t -> {
+            sink.accept(t);
+            sink.accept(op.apply(t));
+        });
+    }
+
+    /**
+     * @param source the input elements
+     * @param pre    predicate to execute
+     * @param <T>    element type
+     * @return a lazy iterator over the elements of source, each one present
+     *         only if the predicate passes
+     */
+    public static <T> Iterator<Optional<T>> optFilter(final Iterator<T> source, final Predicate<T> pre) {
+        return new Iterator<>() {
+
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Optional<T> next() {
+                if (!source.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return Optional.of(source.next()).filter(pre);
+            }
+        };
+    }
+
+    /**
+     * @param source the input elements
+     * @param pre    predicate to execute
+     * @param sink   receives each element of source, present only if the
+     *               predicate passes
+     * @param <T>    element type
+     */
+    public static <T> void optFilter(final Spliterator<T> source, final Predicate<T> pre,
+            final Consumer<? super Optional<T>> sink) {
+        source.forEachRemaining(t -> sink.accept(Optional.of(t).filter(pre)));
+    }
+
+    /**
+     * @param source the input elements
+     * @param op     a function that, for each element, computes a key
+     * @param <T>    element type
+     * @param <R>    key type
+     * @return the same result of {@link LambdaUtilities#group}, for the
+     *         elements of source
+     */
+    public static <R, T> Map<R, Set<T>> group(final Spliterator<T> source, final Function<T, R> op) {
+        final GroupAccumulator<T, R> acc = new GroupAccumulator<>();
+        source.forEachRemaining(t -> acc.add(op.apply(t), t));
+        return acc.freeze();
+    }
+
+    /**
+     * Folds the elements of source into an existing grouping, so that a large
+     * input can be grouped one chunk at a time.
+     *
+     * @param source the input elements
+     * @param op     a function that, for each element, computes a key
+     * @param into   the map to add the elements to; new buckets are
+     *               {@link LinkedHashSet}s, existing ones must be modifiable
+     * @param <T>    element type
+     * @param <R>    key type
+     * @return into
+     */
+    public static <R, T> Map<R, Set<T>> group(final Spliterator<T> source, final Function<T, R> op,
+            final Map<R, Set<T>> into) {
+        source.forEachRemaining(t -> into.computeIfAbsent(op.apply(t), k -> new LinkedHashSet<>()).add(t));
+        return into;
+    }
+
+    /**
+     * @param <R> key type
+     * @param <T> element type
+     * @return an empty map, to be filled by
+     *         {@link #group(Spliterator, Function, Map)}
+     */
+    public static <R, T> Map<R, Set<T>> newGrouping() {
+        return new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,253 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional instrumentation of {@link LambdaUtilities}.
+ *
+ * When enabled, each call emits an {@link InvocationEvent} to the JDK Flight
+ * Recorder (if a recording is active) and updates in-process counters and a
+ * latency histogram, readable through {@link #snapshot(Operation)}. When
+ * disabled, each call only pays for the read of a volatile flag.
+ *
+ * It is disabled by default; it can be enabled at startup with
+ * -Dlambda.metrics=true, or at any time with {@link #setEnabled(boolean)}.
+ */
+public final class LambdaMetrics {
+
+    /**
+     * Number of buckets of the latency histograms: bucket i counts the calls
+     * that took [2^i, 2^(i+1)) nanoseconds.
+     */
+    public static final int HISTOGRAM_BUCKETS = Long.SIZE;
+
+    private static final Map<Operation, Counters> COUNTERS = new EnumMap<>(Operation.class);
+    private static volatile boolean enabled = Boolean.getBoolean("lambda.metrics");
+
+    static {
+        for (final Operation op : Operation.values()) {
+            COUNTERS.put(op, new Counters());
+        }
+    }
+
+    private LambdaMetrics() {
+    }
+
+    /**
+     * The instrumented operations.
+     */
+    public enum Operation {
+        /**
+         * {@link LambdaUtilities#dup}.
+         */
+        DUP,
+        /**
+         * {@link LambdaUtilities#optFilter}.
+         */
+        OPT_FILTER,
+        /**
+         * {@link LambdaUtilities#group}.
+         */
+        GROUP,
+        /**
+         * {@link LambdaUtilities#fill}.
+         */
+        FILL,
+        /**
+         * {@link LambdaUtilities#union}.
+         */
+        UNION
+    }
+
+    /**
+     * @param enabled true to enable the instrumentation
+     */
+    public static void setEnabled(final boolean enabled) {
+        LambdaMetrics.enabled = enabled;
+    }
+
+    /**
+     * @return true if the instrumentation is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param op the operation
+     * @return the statistics of the calls made while enabled
+     */
+    public static Stats snapshot(final Operation op) {
+        return COUNTERS.get(op).snapshot();
+    }
+
+    /**
+     * Clears all the statistics.
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(Counters::reset);
+    }
+
+    /**
+     * To be called at the beginning of an instrumented method.
+     *
+     * @return a probe measuring the call, or null if disabled
+     */
+    static Probe start() {
+        return enabled ? new Probe() : null;
+    }
+
+    /**
+     * To be called at the end of an instrumented method.
+     *
+     * @param probe      the result of {@link #start()}
+     * @param op         the operation
+     * @param inputSize  the number of input elements
+     * @param outputSize the number of output elements
+     * @param buckets    the number of buckets, for group
+     */
+    static void end(final Probe probe, final Operation op, final int inputSize, final int outputSize,
+            final int buckets) {
+        if (probe != null) {
+            probe.end(op, inputSize, outputSize, buckets);
+        }
+    }
+
+    /**
+     * Measures a single call.
+     */
+    static final class Probe {
+
+        private final long start = System.nanoTime();
+        private final InvocationEvent event = new InvocationEvent();
+
+        private Probe() {
+            event.begin();
+        }
+
+        private void end(final Operation op, final int inputSize, final int outputSize, final int buckets) {
+            final long elapsed = System.nanoTime() - start;
+            COUNTERS.get(op).add(inputSize, outputSize, elapsed);
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = op.name();
+                event.inputSize = inputSize;
+                event.outputSize = outputSize;
+                event.buckets = buckets;
+                event.commit();
+            }
+        }
+    }
+
+    private static final class Counters {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder input = new LongAdder();
+        private final LongAdder output = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+        void add(final int inputSize, final int outputSize, final long elapsed) {
+            calls.increment();
+            input.add(inputSize);
+            output.add(outputSize);
+            nanos.add(elapsed);
+            histogram.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(Math.max(1, elapsed)));
+        }
+
+        Stats snapshot() {
+            final long[] buckets = new long[HISTOGRAM_BUCKETS];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = histogram.get(i);
+            }
+            return new Stats(calls.sum(), input.sum(), output.sum(), nanos.sum(), buckets);
+        }
+
+        void reset() {
+            calls.reset();
+            input.reset();
+            output.reset();
+            nanos.reset();
+            for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Aggregated statistics of an operation.
+     */
+    public static final class Stats {
+
+        private final long calls;
+        private final long inputElements;
+        private final long outputElements;
+        private final long totalNanos;
+        private final long[] histogram;
+
+        private Stats(final long calls, final long inputElements, final long outputElements, final long totalNanos,
+                final long[] histogram) {
+            this.calls = calls;
+            this.inputElements = inputElements;
+            this.outputElements = outputElements;
+            this.totalNanos = totalNanos;
+            this.histogram = histogram;
+        }
+
+        /**
+         * @return the number of calls
+         */
+        public long getCalls() {
+            return calls;
+        }
+
+        /**
+         * @return the total number of input elements
+         */
+        public long getInputElements() {
+            return inputElements;
+        }
+
+        /**
+         * @return the total number of output elements
+         */
+        public long getOutputElements() {
+            return outputElements;
+        }
+
+        /**
+         * @return the total elapsed time, in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return the latency histogram: element i counts the calls that took
+         *         [2^i, 2^(i+1)) nanoseconds
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * @param quantile a value in [0, 1]
+         * @return an upper bound of the given latency quantile, in nanoseconds,
+         *         or 0 if there were no calls
+         */
+        public long getLatencyUpperBound(final double quantile) {
+            final long rank = (long) Math.ceil(quantile * calls);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank && seen > 0) {
+                    return i == Long.SIZE - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return 0;
+        }
+    }
+}
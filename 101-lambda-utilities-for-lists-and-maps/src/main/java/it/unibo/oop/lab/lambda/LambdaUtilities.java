@@ -1,20 +1,31 @@
 package it.unibo.oop.lab.lambda;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import it.unibo.oop.lab.lambda.LambdaMetrics.Operation;
+import it.unibo.oop.lab.lambda.LambdaMetrics.Probe;
+
 /**
  * This class will contain four utility functions on lists and maps, of which
  * the first one is provided as example.
@@ -44,14 +55,116 @@ public final class LambdaUtilities {
      *         a processed version
      */
     public static <T> List<T> dup(final List<T> list, final UnaryOperator<T> op) {
+        final Probe probe = LambdaMetrics.start();
         final List<T> l = new ArrayList<>(list.size() * 2);
         list.forEach(t -> {
             l.add(t);
             l.add(op.apply(t));
         });
+        LambdaMetrics.end(probe, Operation.DUP, list.size(), l.size(), 0);
         return l;
     }
 
+    /**
+     * @param list
+     *             the input list, which should be random access
+     * @param op
+     *             the process to run on each element
+     * @param <T>
+     *             element type
+     * @return a read-only view of {@link #dup(List, UnaryOperator)}, backed by
+     *         list, that processes an element each time it is accessed
+     */
+    public static <T> List<T> dupView(final List<T> list, final UnaryOperator<T> op) {
+        return dupView(list, op, false);
+    }
+
+    /**
+     * @param list
+     *             the input list, which should be random access
+     * @param op
+     *             the process to run on each element
+     * @param memoize
+     *             true if each element must be processed at most once; the
+     *             returned view is then not thread-safe
+     * @param <T>
+     *             element type
+     * @return a read-only view of {@link #dup(List, UnaryOperator)}, backed by
+     *         list, that processes an element when it is accessed
+     */
+    public static <T> List<T> dupView(final List<T> list, final UnaryOperator<T> op, final boolean memoize) {
+        return new DupView<>(list, op, memoize);
+    }
+
+    /**
+     * Writes, for each element of list, the element followed by its processed
+     * version by each operator, without building any intermediate list.
+     *
+     * @param list
+     *             the input list
+     * @param ops
+     *             the processes to run on each element, in order
+     * @param sink
+     *             receives the element and its processed versions
+     * @param <T>
+     *             element type
+     */
+    public static <T> void dup(final List<T> list, final List<? extends UnaryOperator<T>> ops,
+            final Consumer<? super T> sink) {
+        /*
+         * Index loops, so that a call does not even allocate an iterator.
+         */
+        if (list instanceof RandomAccess && ops instanceof RandomAccess) {
+            for (int i = 0; i < list.size(); i++) {
+                final T t = list.get(i);
+                sink.accept(t);
+                for (int j = 0; j < ops.size(); j++) {
+                    sink.accept(ops.get(j).apply(t));
+                }
+            }
+        } else {
+            for (final T t : list) {
+                sink.accept(t);
+                for (final UnaryOperator<T> op : ops) {
+                    sink.accept(op.apply(t));
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends the same elements of {@link #dup(List, List, Consumer)} to a
+     * buffer, which can be cleared and reused across calls: once an
+     * {@link ArrayList} buffer has grown to its steady state size, calls do not
+     * allocate.
+     *
+     * @param list
+     *             the input list
+     * @param ops
+     *             the processes to run on each element, in order
+     * @param buffer
+     *             the collection to append to
+     * @param <T>
+     *             element type
+     */
+    public static <T> void dupInto(final List<T> list, final List<? extends UnaryOperator<T>> ops,
+            final Collection<? super T> buffer) {
+        if (buffer instanceof ArrayList) {
+            ((ArrayList<?>) buffer).ensureCapacity(buffer.size() + list.size() * (ops.size() + 1));
+        }
+        if (list instanceof RandomAccess && ops instanceof RandomAccess) {
+            for (int i = 0; i < list.size(); i++) {
+                final T t = list.get(i);
+                buffer.add(t);
+                for (int j = 0; j < ops.size(); j++) {
+                    buffer.add(ops.get(j).apply(t));
+                }
+            }
+        } else {
+            dup(list, ops, buffer::add);
+        }
+    }
+
     /**
      * @param list
      *             input list
@@ -67,11 +180,79 @@ public final class LambdaUtilities {
         /*
          * Suggestion: consider Optional.filter
          */
+        final Probe probe = LambdaMetrics.start();
         final List<Optional<T>> newList = new ArrayList<>();
         list.forEach(t -> newList.add(Optional.of(t).filter(pre)));
+        LambdaMetrics.end(probe, Operation.OPT_FILTER, list.size(), newList.size(), 0);
         return newList;
     }
 
+    /**
+     * @param list
+     *             input list
+     * @param pre
+     *             predicate to execute, which is evaluated at most once for
+     *             each distinct element still in the cache
+     * @param cacheSize
+     *             the maximum number of outcomes to remember
+     * @param eviction
+     *             the policy that chooses the outcomes to forget
+     * @param <T>
+     *             element type
+     * @return the same result of {@link #optFilter(List, Predicate)}; to share
+     *         the cache across calls, pass a {@link Memoizer} to it instead
+     */
+    public static <T> List<Optional<T>> optFilter(final List<T> list, final Predicate<T> pre, final int cacheSize,
+            final Memoizer.Eviction eviction) {
+        return optFilter(list, Memoizer.ofPredicate(pre, cacheSize, eviction).asPredicate());
+    }
+
+    /**
+     * @param list
+     *             input list
+     * @param pre
+     *             predicate to execute
+     * @param <T>
+     *             element type
+     * @return the same result of {@link #optFilter(List, Predicate)}, stored as
+     *         a reference to list plus a presence bitmap
+     */
+    public static <T> OptionalList<T> optFilterCompact(final List<T> list, final Predicate<T> pre) {
+        return OptionalList.filter(list, pre);
+    }
+
+    /**
+     * @param list
+     *             input list, which should be random access
+     * @param pre
+     *             predicate to execute
+     * @param <T>
+     *             element type
+     * @return a read-only view of {@link #optFilter(List, Predicate)}, backed
+     *         by list, that tests an element each time it is accessed
+     */
+    public static <T> List<Optional<T>> optFilterView(final List<T> list, final Predicate<T> pre) {
+        return optFilterView(list, pre, false);
+    }
+
+    /**
+     * @param list
+     *             input list, which should be random access
+     * @param pre
+     *             predicate to execute
+     * @param memoize
+     *             true if each element must be tested at most once; the
+     *             returned view is then not thread-safe
+     * @param <T>
+     *             element type
+     * @return a read-only view of {@link #optFilter(List, Predicate)}, backed
+     *         by list, that tests an element when it is accessed
+     */
+    public static <T> List<Optional<T>> optFilterView(final List<T> list, final Predicate<T> pre,
+            final boolean memoize) {
+        return new OptFilterView<>(list, pre, memoize);
+    }
+
     /**
      * @param list
      *             input list
@@ -82,17 +263,197 @@ public final class LambdaUtilities {
      * @param <R>
      *             key type
      * @return a map that groups into categories each element of the input list,
-     *         based on the mapping done by the function
+     *         based on the mapping done by the function. Keys and elements keep
+     *         their encounter order, and the sets are unmodifiable.
      */
     public static <R, T> Map<R, Set<T>> group(final List<T> list, final Function<T, R> op) {
         /*
-         * Suggestion: consider Map.merge
+         * Merging with union would copy the whole bucket at each insertion,
+         * which is quadratic in the bucket size: each bucket is instead built
+         * by appending to a single set, and frozen at the end.
          */
-        final Map<R, Set<T>> map = new LinkedHashMap<>();
-        list.forEach(t -> map.merge(op.apply(t), Set.of(t), LambdaUtilities::union));
+        final Probe probe = LambdaMetrics.start();
+        final Map<R, Set<T>> map = GroupAccumulator.group(list, op);
+        LambdaMetrics.end(probe, Operation.GROUP, list.size(), probe == null ? 0 : elements(map), map.size());
+        return map;
+    }
+
+    /*
+     * Duplicate elements are only grouped once: the output is the elements of
+     * the buckets, counted only when measured.
+     */
+    private static int elements(final Map<?, ? extends Collection<?>> groups) {
+        int elements = 0;
+        for (final Collection<?> bucket : groups.values()) {
+            elements += bucket.size();
+        }
+        return elements;
+    }
+
+    /**
+     * @param list
+     *             input list
+     * @param op
+     *             a function that, for each element, computes a key, which
+     *             is evaluated at most once for each distinct element still
+     *             in the cache
+     * @param cacheSize
+     *             the maximum number of keys to remember
+     * @param eviction
+     *             the policy that chooses the keys to forget
+     * @param <T>
+     *             element type
+     * @param <R>
+     *             key type
+     * @return the same result of {@link #group(List, Function)}; to share the
+     *         cache across calls, pass a {@link Memoizer} to it instead
+     */
+    public static <R, T> Map<R, Set<T>> group(final List<T> list, final Function<T, R> op, final int cacheSize,
+            final Memoizer.Eviction eviction) {
+        return group(list, Memoizer.of(op, cacheSize, eviction));
+    }
+
+    /**
+     * @param list
+     *             input list of non-null elements
+     * @param op
+     *             a function that, for each element, computes a key
+     * @param reducer
+     *             combines the result so far of a key with its next element,
+     *             e.g. {@code BinaryOperator.minBy(comparator)}, or
+     *             {@code (first, next) -> first}
+     * @param <T>
+     *             element type
+     * @param <R>
+     *             key type
+     * @return for each key, in encounter order, the reduction of its elements
+     */
+    public static <R, T> Map<R, T> groupReduce(final List<T> list, final Function<T, R> op,
+            final BinaryOperator<T> reducer) {
+        final Map<R, T> map = new LinkedHashMap<>();
+        list.forEach(t -> map.merge(op.apply(t), t, reducer));
         return map;
     }
 
+    /**
+     * @param list
+     *             input list
+     * @param op
+     *             a function that, for each element, computes a key
+     * @param <T>
+     *             element type
+     * @param <R>
+     *             key type
+     * @return for each key, in encounter order, the number of its elements,
+     *         counting duplicates
+     */
+    public static <R, T> Map<R, Long> groupCount(final List<T> list, final Function<T, R> op) {
+        return groupSum(list, op, t -> 1L);
+    }
+
+    /**
+     * @param list
+     *             input list
+     * @param op
+     *             a function that, for each element, computes a key
+     * @param value
+     *             the value to sum of each element
+     * @param <T>
+     *             element type
+     * @param <R>
+     *             key type
+     * @return for each key, in encounter order, the sum of the values of its
+     *         elements, counting duplicates
+     */
+    public static <R, T> Map<R, Long> groupSum(final List<T> list, final Function<T, R> op,
+            final ToLongFunction<? super T> value) {
+        /*
+         * Sums are kept unboxed, and only boxed once per key at the end.
+         */
+        final Map<R, long[]> sums = new LinkedHashMap<>();
+        list.forEach(t -> sums.computeIfAbsent(op.apply(t), k -> new long[1])[0] += value.applyAsLong(t));
+        final Map<R, Long> map = new LinkedHashMap<>(GroupAccumulator.capacity(sums.size()));
+        sums.forEach((k, sum) -> map.put(k, sum[0]));
+        return map;
+    }
+
+    /**
+     * @param list
+     *             input list
+     * @param op
+     *             a function that, for each element, computes a key
+     * @param supplier
+     *             creates the mutable accumulator of a new key
+     * @param accumulator
+     *             folds an element into the accumulator of its key
+     * @param <T>
+     *             element type
+     * @param <R>
+     *             key type
+     * @param <A>
+     *             accumulator type
+     * @return for each key, in encounter order, the accumulator of its
+     *         elements
+     */
+    public static <R, T, A> Map<R, A> groupAggregate(final List<T> list, final Function<T, R> op,
+            final Supplier<A> supplier, final BiConsumer<? super A, ? super T> accumulator) {
+        final Map<R, A> map = new LinkedHashMap<>();
+        list.forEach(t -> accumulator.accept(map.computeIfAbsent(op.apply(t), k -> supplier.get()), t));
+        return map;
+    }
+
+    /**
+     * @param list
+     *             input list
+     * @param op
+     *             a function that, for each element, computes a key
+     * @param <T>
+     *             element type
+     * @param <R>
+     *             key type
+     * @return the same groups of {@link #group(List, Function)}, as persistent
+     *         collections iterated in hash order
+     */
+    public static <R, T> PersistentHashMap<R, PersistentHashSet<T>> groupPersistent(final List<T> list,
+            final Function<T, R> op) {
+        return groupPersistent(PersistentHashMap.empty(), list, op);
+    }
+
+    /**
+     * @param base
+     *             a previous grouping
+     * @param list
+     *             the elements to add to it
+     * @param op
+     *             a function that, for each element, computes a key
+     * @param <T>
+     *             element type
+     * @param <R>
+     *             key type
+     * @return a new version of base, with the elements of list added to their
+     *         groups; base is unchanged, and shares with the result all the
+     *         groups that list does not touch
+     */
+    public static <R, T> PersistentHashMap<R, PersistentHashSet<T>> groupPersistent(
+            final PersistentHashMap<R, PersistentHashSet<T>> base, final List<T> list, final Function<T, R> op) {
+        /*
+         * Each bucket is grown in a mutable map first, so that the trie is
+         * only updated once per key.
+         */
+        final Map<R, PersistentHashSet<T>> changed = new HashMap<>();
+        for (final T t : list) {
+            changed.compute(op.apply(t), (k, bucket) -> {
+                final PersistentHashSet<T> current = bucket != null ? bucket : base.get(k);
+                return (current != null ? current : PersistentHashSet.<T>empty()).plus(t);
+            });
+        }
+        PersistentHashMap<R, PersistentHashSet<T>> result = base;
+        for (final Map.Entry<R, PersistentHashSet<T>> e : changed.entrySet()) {
+            result = result.plus(e.getKey(), e.getValue());
+        }
+        return result;
+    }
+
     /**
      * @param map
      *            input map
@@ -103,16 +464,86 @@ public final class LambdaUtilities {
      * @param <K>
      *            key type
      * @return a map whose non present values are filled with the value provided
-     *         by the supplier
+     *         by the supplier, which is only called for the non present values
      */
     public static <K, V> Map<K, V> fill(final Map<K, Optional<V>> map, final Supplier<V> def) {
         /*
-         * Suggestion: consider Optional.orElse
-         *
-         * Keep in mind that a map can be iterated through its forEach method
+         * Optional.orElseGet, unlike orElse, does not call the supplier when a
+         * value is present.
          */
-        final Map<K, V> newMap = new LinkedHashMap<>();
-        map.forEach((k, v) -> newMap.put(k, v.orElse(def.get())));
+        final Probe probe = LambdaMetrics.start();
+        final Map<K, V> newMap = new LinkedHashMap<>(GroupAccumulator.capacity(map.size()));
+        map.forEach((k, v) -> newMap.put(k, v.orElseGet(def)));
+        LambdaMetrics.end(probe, Operation.FILL, map.size(), newMap.size(), 0);
+        return newMap;
+    }
+
+    /**
+     * Fills the non present values of a map without copying it. If the map is a
+     * {@link ConcurrentMap}, each value is filled atomically, so the supplier is
+     * called at most once per key even with concurrent fillers.
+     *
+     * @param map
+     *            a modifiable map
+     * @param def
+     *            the supplier, which is only called for the non present values
+     *            and must not return null
+     * @param <V>
+     *            element type
+     * @param <K>
+     *            key type
+     * @return map, where every value is now present
+     */
+    public static <K, V> Map<K, Optional<V>> fillInPlace(final Map<K, Optional<V>> map, final Supplier<V> def) {
+        if (map instanceof ConcurrentMap) {
+            map.forEach((k, v) -> {
+                if (v.isEmpty()) {
+                    map.computeIfPresent(k, (key, value) -> value.isPresent() ? value : Optional.of(def.get()));
+                }
+            });
+        } else {
+            map.replaceAll((k, v) -> v.isPresent() ? v : Optional.of(def.get()));
+        }
+        return map;
+    }
+
+    /**
+     * Like {@link #fill(Map, Supplier)}, but all the missing values are
+     * produced by a single call, e.g. to allocate a batch of identifiers or to
+     * perform a single lookup.
+     *
+     * @param map
+     *            input map
+     * @param defaults
+     *            given the keys with a non present value, in iteration order,
+     *            returns their values, in the same order
+     * @param <V>
+     *            element type
+     * @param <K>
+     *            key type
+     * @return a map whose non present values are filled with the values
+     *         provided by defaults
+     * @throws IllegalStateException
+     *             if defaults returns a different number of values than the
+     *             keys it was given
+     */
+    public static <K, V> Map<K, V> fillBulk(final Map<K, Optional<V>> map,
+            final Function<? super List<K>, ? extends List<? extends V>> defaults) {
+        final List<K> missing = new ArrayList<>();
+        map.forEach((k, v) -> {
+            if (v.isEmpty()) {
+                missing.add(k);
+            }
+        });
+        final List<? extends V> values = missing.isEmpty() ? List.of() : defaults.apply(missing);
+        if (values.size() != missing.size()) {
+            throw new IllegalStateException(
+                "Expected " + missing.size() + " default values, got " + values.size()
+            );
+        }
+        final Iterator<? extends V> it = values.iterator();
+        final Map<K, V> newMap = new LinkedHashMap<>(GroupAccumulator.capacity(map.size()));
+        map.forEach((k, v) -> newMap.put(k, v.isPresent() ? v.get() : it.next()));
         return newMap;
     }
 
@@ -155,8 +586,51 @@ public final class LambdaUtilities {
      * @return a set whose elements are the result of the union of the provided sets
      */
     public static <T> Set<T> union(final Set<? extends T> set1, final Set<? extends T> set2) {
-        final var merged = new LinkedHashSet<T>(set1);
+        final Probe probe = LambdaMetrics.start();
+        final var merged = new LinkedHashSet<T>(GroupAccumulator.capacity(set1.size() + set2.size()));
+        merged.addAll(set1);
         merged.addAll(set2);
+        LambdaMetrics.end(probe, Operation.UNION, set1.size() + set2.size(), merged.size(), 0);
         return merged;
     }
+
+    /**
+     * @param <T>  element type
+     * @param set1 a persistent set
+     * @param set2 any set
+     * @return a persistent set whose elements are the result of the union of
+     *         the provided sets; it shares its structure with the larger of
+     *         them, if persistent, so that only the elements of the other one
+     *         are added
+     */
+    public static <T> PersistentHashSet<T> unionPersistent(final PersistentHashSet<T> set1,
+            final Set<? extends T> set2) {
+        if (set2 instanceof PersistentHashSet && set2.size() > set1.size()) {
+            return PersistentHashSet.<T>copyOf(set2).plusAll(set1);
+        }
+        return set1.plusAll(set2);
+    }
+
+    /**
+     * Merges any number of sets at once, sizing the result from their combined
+     * cardinality. Depending on the inputs, the result may be:
+     * - the largest set itself, without copying, if it contains all the
+     * others: as it is, if it cannot change (e.g. it comes from Set.of, or it
+     * is a {@link PersistentHashSet}), otherwise through a read-only view,
+     * that reflects its later changes;
+     * - a bitset, if the elements are integers within a small range;
+     * - a sorted array, merged without hashing, if the sets are all sorted by
+     * the same comparator.
+     * In any other case, the result is a new set, not affected by later
+     * changes of the provided ones.
+     * Therefore, the iteration order of the result is not specified.
+     *
+     * @param <T>  element type
+     * @param sets the sets to merge
+     * @return an unmodifiable set whose elements are the result of the union of
+     *         the provided sets
+     */
+    public static <T> Set<T> unionAll(final Collection<? extends Set<? extends T>> sets) {
+        return Unions.of(sets);
+    }
 }
@@ -0,0 +1,75 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The result of grouping a long[] by a long key: the primitive counterpart of
+ * the map returned by {@link LambdaUtilities#group}.
+ *
+ * Keys are held in an open-addressing table, and each bucket is an
+ * insertion-ordered set of longs: no value is ever boxed.
+ */
+public final class LongGroups {
+
+    private final LongLinkedSet keys;
+    private LongLinkedSet[] buckets;
+
+    /**
+     * @param expected the expected number of keys
+     */
+    LongGroups(final int expected) {
+        keys = new LongLinkedSet(expected);
+        buckets = new LongLinkedSet[Math.max(1, expected)];
+    }
+
+    /**
+     * @param key   the key of the value
+     * @param value the value to add to the bucket of key
+     */
+    void add(final long key, final long value) {
+        final int index = keys.add(key);
+        if (index == buckets.length) {
+            buckets = Arrays.copyOf(buckets, index * 2);
+        }
+        if (buckets[index] == null) {
+            buckets[index] = new LongLinkedSet(1);
+        }
+        buckets[index].add(value);
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return the keys, in the order in which they were first found
+     */
+    public long[] keys() {
+        return keys.toArray();
+    }
+
+    /**
+     * @param key the key
+     * @return true if some value has that key
+     */
+    public boolean containsKey(final long key) {
+        return keys.indexOf(key) >= 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the distinct values having that key, in encounter order
+     * @throws NoSuchElementException if no value has that key
+     */
+    public long[] get(final long key) {
+        final int index = keys.indexOf(key);
+        if (index < 0) {
+            throw new NoSuchElementException("No such key: " + key);
+        }
+        return buckets[index].toArray();
+    }
+}
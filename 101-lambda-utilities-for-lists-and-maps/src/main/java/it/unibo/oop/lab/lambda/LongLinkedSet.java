@@ -0,0 +1,116 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Arrays;
+
+/**
+ * An insertion-ordered set of longs, with open addressing and linear probing.
+ *
+ * Values are stored densely in insertion order, while the hash table only holds
+ * their positions: each value gets a stable index, which callers can use to
+ * keep parallel arrays.
+ */
+final class LongLinkedSet {
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final long GOLDEN = 0x9E37_79B9_7F4A_7C15L;
+
+    private long[] values;
+    /*
+     * Position + 1 of the value stored in each slot, 0 for empty slots.
+     */
+    private int[] slots;
+    private int size;
+
+    /**
+     * @param expected the expected number of values
+     */
+    LongLinkedSet(final int expected) {
+        values = new long[Math.max(INITIAL_CAPACITY, expected)];
+        slots = new int[tableSize(values.length)];
+    }
+
+    /**
+     * @param value the value to add
+     * @return the index of value, in insertion order
+     */
+    int add(final long value) {
+        final int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+        while (slots[slot] != 0) {
+            final int index = slots[slot] - 1;
+            if (values[index] == value) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        slots[slot] = ++size;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return size - 1;
+    }
+
+    /**
+     * @param value the value to look for
+     * @return the index of value, or -1 if it is not in the set
+     */
+    int indexOf(final long value) {
+        final int mask = slots.length - 1;
+        int slot = hash(value) & mask;
+        while (slots[slot] != 0) {
+            final int index = slots[slot] - 1;
+            if (values[index] == value) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of values
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param index a position in insertion order
+     * @return the value at that position
+     */
+    long get(final int index) {
+        return values[index];
+    }
+
+    /**
+     * @return the values, in insertion order
+     */
+    long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void rehash(final int tableSize) {
+        slots = new int[tableSize];
+        final int mask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(values[i]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+    }
+
+    private static int tableSize(final int expected) {
+        return Integer.highestOneBit(expected * 2 - 1) << 1;
+    }
+
+    private static int hash(final long value) {
+        final long h = value * GOLDEN;
+        return (int) (h ^ h >>> (Long.SIZE / 2));
+    }
+}
@@ -0,0 +1,268 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A function that remembers its most useful results, for expensive key
+ * functions and predicates applied to heavily repeated elements, e.g.
+ * {@code LambdaUtilities.group(list, Memoizer.of(op, 10_000, Eviction.LRU))}.
+ *
+ * The cache is bounded: when it is full, an entry is evicted according to the
+ * chosen {@link Eviction} policy. A memoizer can be shared across calls and
+ * threads, so that its results and statistics span all of them; concurrent
+ * misses on the same element may compute it more than once. Elements are
+ * compared with equals and hashCode.
+ *
+ * @param <T> argument type
+ * @param <R> result type
+ */
+public final class Memoizer<T, R> implements Function<T, R> {
+
+    private final Function<T, R> fn;
+    private final Cache<T, R> cache;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private Memoizer(final Function<T, R> fn, final Cache<T, R> cache) {
+        this.fn = Objects.requireNonNull(fn);
+        this.cache = cache;
+    }
+
+    /**
+     * The policies that choose which entry to evict from a full cache.
+     */
+    public enum Eviction {
+        /**
+         * Evicts the least recently used entry.
+         */
+        LRU,
+        /**
+         * Evicts the least frequently used entry, and the least recently
+         * inserted among those.
+         */
+        LFU
+    }
+
+    /**
+     * @param fn       the function to memoize
+     * @param capacity the maximum number of results to remember
+     * @param eviction the eviction policy
+     * @param <T>      argument type
+     * @param <R>      result type
+     * @return a memoizing version of fn
+     */
+    public static <T, R> Memoizer<T, R> of(final Function<T, R> fn, final int capacity, final Eviction eviction) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        return new Memoizer<>(fn, eviction == Eviction.LRU ? new LruCache<>(capacity) : new LfuCache<>(capacity));
+    }
+
+    /**
+     * @param pre      the predicate to memoize
+     * @param capacity the maximum number of outcomes to remember
+     * @param eviction the eviction policy
+     * @param <T>      argument type
+     * @return a memoizer of the outcomes of pre, to be used through
+     *         {@link #asPredicate()}
+     */
+    public static <T> Memoizer<T, Boolean> ofPredicate(final Predicate<T> pre, final int capacity,
+            final Eviction eviction) {
+        return of(pre::test, capacity, eviction);
+    }
+
+    @Override
+    public R apply(final T t) {
+        synchronized (cache) {
+            final Entry<R> entry = cache.get(t);
+            if (entry != null) {
+                hits++;
+                return entry.value;
+            }
+            misses++;
+        }
+        final R value = fn.apply(t);
+        synchronized (cache) {
+            if (cache.put(t, value)) {
+                evictions++;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return this memoizer as a predicate, for memoizers of predicates
+     */
+    public Predicate<T> asPredicate() {
+        return t -> Boolean.TRUE.equals(apply(t));
+    }
+
+    /**
+     * @return the number of calls answered by the cache
+     */
+    public long getHits() {
+        synchronized (cache) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return the number of calls that invoked the function
+     */
+    public long getMisses() {
+        synchronized (cache) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return the number of entries evicted from the cache
+     */
+    public long getEvictions() {
+        synchronized (cache) {
+            return evictions;
+        }
+    }
+
+    /**
+     * @return the number of results currently remembered
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * A cached result, possibly null.
+     */
+    private static final class Entry<R> {
+
+        private final R value;
+        private int frequency;
+
+        Entry(final R value) {
+            this.value = value;
+        }
+    }
+
+    private interface Cache<T, R> {
+
+        /*
+         * Returns the entry of the key, counting a use, or null.
+         */
+        Entry<R> get(T key);
+
+        /*
+         * Adds an entry, and returns true if another one had to be evicted.
+         */
+        boolean put(T key, R value);
+
+        int size();
+    }
+
+    private static final class LruCache<T, R> implements Cache<T, R> {
+
+        private static final float LOAD_FACTOR = 0.75f;
+
+        private final int capacity;
+        private final Map<T, Entry<R>> entries;
+
+        LruCache(final int capacity) {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(GroupAccumulator.capacity(capacity), LOAD_FACTOR, true);
+        }
+
+        @Override
+        public Entry<R> get(final T key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public boolean put(final T key, final R value) {
+            if (entries.put(key, new Entry<>(value)) == null && entries.size() > capacity) {
+                final Iterator<T> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+
+    /*
+     * Constant time LFU: keys are kept in insertion-ordered sets, one for
+     * each use frequency.
+     */
+    private static final class LfuCache<T, R> implements Cache<T, R> {
+
+        private final int capacity;
+        private final Map<T, Entry<R>> entries = new HashMap<>();
+        private final Map<Integer, LinkedHashSet<T>> byFrequency = new HashMap<>();
+        private int minFrequency;
+
+        LfuCache(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public Entry<R> get(final T key) {
+            final Entry<R> entry = entries.get(key);
+            if (entry != null) {
+                final LinkedHashSet<T> keys = byFrequency.get(entry.frequency);
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    byFrequency.remove(entry.frequency);
+                    if (minFrequency == entry.frequency) {
+                        minFrequency++;
+                    }
+                }
+                entry.frequency++;
+                byFrequency.computeIfAbsent(entry.frequency, f -> new LinkedHashSet<>()).add(key);
+            }
+            return entry;
+        }
+
+        @Override
+        public boolean put(final T key, final R value) {
+            if (entries.containsKey(key)) {
+                return false;
+            }
+            boolean evicted = false;
+            if (entries.size() == capacity) {
+                final LinkedHashSet<T> keys = byFrequency.get(minFrequency);
+                final T victim = keys.iterator().next();
+                keys.remove(victim);
+                if (keys.isEmpty()) {
+                    byFrequency.remove(minFrequency);
+                }
+                entries.remove(victim);
+                evicted = true;
+            }
+            final Entry<R> entry = new Entry<>(value);
+            entry.frequency = 1;
+            entries.put(key, entry);
+            byFrequency.computeIfAbsent(1, f -> new LinkedHashSet<>()).add(key);
+            minFrequency = 1;
+            return evicted;
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+}
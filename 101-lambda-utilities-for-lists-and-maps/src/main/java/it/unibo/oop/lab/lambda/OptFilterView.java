@@ -0,0 +1,69 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * A read-only view of the result of {@link LambdaUtilities#optFilter}, backed
+ * by the source list: the predicate is tested when an element is accessed.
+ *
+ * When memoizing, the outcome of each test is kept in two bitmaps, so that no
+ * {@link Optional} needs to be retained. Outcomes are kept by index: elements
+ * added to the source are tested when first accessed, but an element replaced
+ * in the source keeps the outcome of the previous one.
+ *
+ * @param <T> element type
+ */
+final class OptFilterView<T> extends AbstractList<Optional<T>> implements RandomAccess {
+
+    private final List<T> source;
+    private final Predicate<T> pre;
+    private long[] tested;
+    private long[] passed;
+
+    /**
+     * @param source  the source list, which should be random access
+     * @param pre     the predicate
+     * @param memoize true if each element must be tested at most once
+     */
+    OptFilterView(final List<T> source, final Predicate<T> pre, final boolean memoize) {
+        this.source = source;
+        this.pre = pre;
+        tested = memoize ? Bitmap.create(source.size()) : null;
+        passed = memoize ? Bitmap.create(source.size()) : null;
+    }
+
+    @Override
+    public Optional<T> get(final int index) {
+        Objects.checkIndex(index, size());
+        final T element = source.get(index);
+        return test(index, element) ? Optional.of(element) : Optional.empty();
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    private boolean test(final int index, final T element) {
+        if (tested == null) {
+            return pre.test(element);
+        }
+        /*
+         * The source may have grown.
+         */
+        tested = Bitmap.ensureSize(tested, index + 1);
+        passed = Bitmap.ensureSize(passed, index + 1);
+        if (!Bitmap.get(tested, index)) {
+            if (pre.test(element)) {
+                Bitmap.set(passed, index);
+            }
+            Bitmap.set(tested, index);
+        }
+        return Bitmap.get(passed, index);
+    }
+}
@@ -0,0 +1,136 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * A compact result for {@link LambdaUtilities#optFilter}: a reference to the
+ * source list plus a presence bitmap, that is one bit per element instead of
+ * one {@link Optional}.
+ *
+ * Iterating over it yields only the present elements. It covers the elements
+ * the source list had when it was created, and the source list must not be
+ * modified while this object is in use.
+ *
+ * @param <T> element type
+ */
+public final class OptionalList<T> implements Iterable<T> {
+
+    private final List<T> source;
+    private final long[] present;
+    private final int size;
+
+    private OptionalList(final List<T> source, final long[] present, final int size) {
+        this.source = source;
+        this.present = present;
+        this.size = size;
+    }
+
+    /**
+     * @param list the input list
+     * @param pre  predicate to execute
+     * @param <T>  element type
+     * @return the elements of list, each one present only if the predicate
+     *         passes
+     */
+    static <T> OptionalList<T> filter(final List<T> list, final Predicate<T> pre) {
+        final List<T> source = list instanceof RandomAccess ? list : new ArrayList<>(list);
+        final int size = source.size();
+        final long[] bits = Bitmap.create(size);
+        for (int i = 0; i < size; i++) {
+            if (pre.test(source.get(i))) {
+                Bitmap.set(bits, i);
+            }
+        }
+        return new OptionalList<>(source, bits, size);
+    }
+
+    /**
+     * @return the number of elements, either present or empty
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index the index of the element
+     * @return true if the element is present
+     */
+    public boolean isPresent(final int index) {
+        Objects.checkIndex(index, size);
+        return Bitmap.get(present, index);
+    }
+
+    /**
+     * @param index the index of the element
+     * @return the element
+     * @throws NoSuchElementException if the element is empty
+     */
+    public T get(final int index) {
+        if (!isPresent(index)) {
+            throw new NoSuchElementException("No value present at index " + index);
+        }
+        return source.get(index);
+    }
+
+    /**
+     * @return the number of present elements
+     */
+    public int presentCount() {
+        return Bitmap.count(present);
+    }
+
+    /**
+     * @return an iterator over the present elements, in order
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+
+            private int next = Bitmap.next(present, 0, size);
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final T element = source.get(next);
+                next = Bitmap.next(present, next + 1, size);
+                return element;
+            }
+        };
+    }
+
+    /**
+     * @return a read-only view of this object in the format returned by
+     *         {@link LambdaUtilities#optFilter}
+     */
+    public List<Optional<T>> asOptionals() {
+        return new Optionals();
+    }
+
+    private final class Optionals extends AbstractList<Optional<T>> implements RandomAccess {
+
+        @Override
+        public Optional<T> get(final int index) {
+            return isPresent(index) ? Optional.of(source.get(index)) : Optional.empty();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
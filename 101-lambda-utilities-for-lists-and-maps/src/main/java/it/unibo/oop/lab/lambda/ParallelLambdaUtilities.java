@@ -0,0 +1,228 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Parallel counterparts of {@link LambdaUtilities}: the input is split in
+ * ranges that are processed on the common {@link ForkJoinPool}, and the
+ * results are written back by index, so that the output order is the same as
+ * the one of the sequential versions.
+ *
+ * Inputs smaller than a threshold are processed sequentially. The functional
+ * arguments are invoked concurrently, so they must be thread-safe.
+ */
+public final class ParallelLambdaUtilities {
+
+    /**
+     * Default size below which inputs are processed sequentially.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 12;
+
+    /*
+     * Each worker gets a few ranges, so that it can steal work when the cost
+     * of the functions is uneven.
+     */
+    private static final int RANGES_PER_WORKER = 4;
+
+    private ParallelLambdaUtilities() {
+    }
+
+    /**
+     * @param list the input list
+     * @param op   the process to run on each element
+     * @param <T>  element type
+     * @return the same result of {@link LambdaUtilities#dup(List, UnaryOperator)}
+     */
+    public static <T> List<T> dup(final List<T> list, final UnaryOperator<T> op) {
+        return dup(list, op, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param list      the input list
+     * @param op        the process to run on each element
+     * @param threshold the size below which the list is processed sequentially
+     * @param <T>       element type
+     * @return the same result of {@link LambdaUtilities#dup(List, UnaryOperator)}
+     */
+    public static <T> List<T> dup(final List<T> list, final UnaryOperator<T> op, final int threshold) {
+        if (list.size() < threshold) {
+            return LambdaUtilities.dup(list, op);
+        }
+        final List<T> src = randomAccess(list);
+        final Object[] out = new Object[src.size() * 2];
+        forEachIndex(src.size(), i -> {
+            final T t = src.get(i);
+            out[2 * i] = t;
+            out[2 * i + 1] = op.apply(t);
+        });
+        return asList(out);
+    }
+
+    /**
+     * @param list the input list
+     * @param pre  predicate to execute
+     * @param <T>  element type
+     * @return the same result of
+     *         {@link LambdaUtilities#optFilter(List, Predicate)}
+     */
+    public static <T> List<Optional<T>> optFilter(final List<T> list, final Predicate<T> pre) {
+        return optFilter(list, pre, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param list      the input list
+     * @param pre       predicate to execute
+     * @param threshold the size below which the list is processed sequentially
+     * @param <T>       element type
+     * @return the same result of
+     *         {@link LambdaUtilities#optFilter(List, Predicate)}
+     */
+    public static <T> List<Optional<T>> optFilter(final List<T> list, final Predicate<T> pre, final int threshold) {
+        if (list.size() < threshold) {
+            return LambdaUtilities.optFilter(list, pre);
+        }
+        final List<T> src = randomAccess(list);
+        final Object[] out = new Object[src.size()];
+        forEachIndex(src.size(), i -> out[i] = Optional.of(src.get(i)).filter(pre));
+        return asList(out);
+    }
+
+    /**
+     * @param list the input list
+     * @param op   a function that, for each element, computes a key
+     * @param <T>  element type
+     * @param <R>  key type
+     * @return the same result of {@link LambdaUtilities#group(List, Function)}
+     */
+    public static <R, T> Map<R, Set<T>> group(final List<T> list, final Function<T, R> op) {
+        return group(list, op, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Computes the keys in parallel, then groups the elements in a single
+     * linear pass, so that keys and elements keep their encounter order.
+     *
+     * @param list      the input list
+     * @param op        a function that, for each element, computes a key
+     * @param threshold the size below which the list is processed sequentially
+     * @param <T>       element type
+     * @param <R>       key type
+     * @return the same result of {@link LambdaUtilities#group(List, Function)}
+     */
+    public static <R, T> Map<R, Set<T>> group(final List<T> list, final Function<T, R> op, final int threshold) {
+        if (list.size() < threshold) {
+            return LambdaUtilities.group(list, op);
+        }
+        final List<T> src = randomAccess(list);
+        final Object[] keys = new Object[src.size()];
+        forEachIndex(src.size(), i -> keys[i] = op.apply(src.get(i)));
+        return GroupAccumulator.group(src, ParallelLambdaUtilities.<R>view(keys));
+    }
+
+    /**
+     * @param map the input map
+     * @param def the supplier, which may be called concurrently
+     * @param <K> key type
+     * @param <V> element type
+     * @return the same result of {@link LambdaUtilities#fill(Map, Supplier)}
+     */
+    public static <K, V> Map<K, V> fill(final Map<K, Optional<V>> map, final Supplier<V> def) {
+        return fill(map, def, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param map       the input map
+     * @param def       the supplier, which may be called concurrently
+     * @param threshold the size below which the map is processed sequentially
+     * @param <K>       key type
+     * @param <V>       element type
+     * @return the same result of {@link LambdaUtilities#fill(Map, Supplier)}
+     */
+    public static <K, V> Map<K, V> fill(final Map<K, Optional<V>> map, final Supplier<V> def, final int threshold) {
+        if (map.size() < threshold) {
+            return LambdaUtilities.fill(map, def);
+        }
+        final List<Map.Entry<K, Optional<V>>> entries = new ArrayList<>(map.entrySet());
+        final Object[] values = new Object[entries.size()];
+        forEachIndex(entries.size(), i -> values[i] = entries.get(i).getValue().orElseGet(def));
+        final Map<K, V> newMap = new LinkedHashMap<>(GroupAccumulator.capacity(entries.size()));
+        final List<V> filled = view(values);
+        for (int i = 0; i < values.length; i++) {
+            newMap.put(entries.get(i).getKey(), filled.get(i));
+        }
+        return newMap;
+    }
+
+    /**
+     * Runs body on every index in [0, size), splitting the range on the common
+     * pool.
+     */
+    private static void forEachIndex(final int size, final IntConsumer body) {
+        final int ranges = ForkJoinPool.getCommonPoolParallelism() * RANGES_PER_WORKER;
+        final int leaf = Math.max(1, (size + ranges - 1) / ranges);
+        ForkJoinPool.commonPool().invoke(new RangeAction(0, size, leaf, body));
+    }
+
+    private static <T> List<T> randomAccess(final List<T> list) {
+        return list instanceof RandomAccess ? list : new ArrayList<>(list);
+    }
+
+    private static <T> List<T> asList(final Object[] values) {
+        return new ArrayList<>(ParallelLambdaUtilities.<T>view(values));
+    }
+
+    /*
+     * The arrays are only filled with values of the right type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> view(final Object[] values) {
+        return (List<T>) Arrays.asList(values);
+    }
+
+    /**
+     * Runs a body on a range of indexes, splitting it in halves until it is
+     * smaller than a leaf size.
+     */
+    private static final class RangeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int leaf;
+        private final transient IntConsumer body;
+
+        RangeAction(final int from, final int to, final int leaf, final IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leaf) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+            } else {
+                final int mid = (from + to) >>> 1;
+                invokeAll(new RangeAction(from, mid, leaf, body), new RangeAction(mid, to, leaf, body));
+            }
+        }
+    }
+}
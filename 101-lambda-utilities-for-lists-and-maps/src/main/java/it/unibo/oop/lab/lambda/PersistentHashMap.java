@@ -0,0 +1,397 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable hash map, that derives new versions of itself with
+ * {@link #plus} and {@link #minus} instead of being modified.
+ *
+ * It is a hash array mapped trie: each level consumes 5 bits of the hash of
+ * the key, and each node stores its entries and children in an array sized by
+ * a bitmap. A new version only copies the path from the root to the changed
+ * entry, at most 7 small arrays, and shares every other node with the previous
+ * version: keeping many versions costs memory proportional to their
+ * differences.
+ *
+ * Lookups and updates take time proportional to the depth of the trie, which
+ * is logarithmic in base 32. Iteration follows the hash order of the keys.
+ * Keys cannot be null; the {@link Map} mutators throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+    private static final Object NOT_FOUND = new Object();
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private final Node root;
+    private final int size;
+    private Set<Map.Entry<K, V>> entries;
+
+    private PersistentHashMap(final Node root, final int size) {
+        super();
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param <K> key type
+     * @param <V> value type
+     * @return the empty map
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /**
+     * @param map the entries of the new map
+     * @param <K> key type
+     * @param <V> value type
+     * @return a persistent copy of map
+     */
+    public static <K, V> PersistentHashMap<K, V> copyOf(final Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap) {
+            @SuppressWarnings("unchecked")
+            final PersistentHashMap<K, V> persistent = (PersistentHashMap<K, V>) map;
+            return persistent;
+        }
+        PersistentHashMap<K, V> result = empty();
+        for (final Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+            result = result.plus(e.getKey(), e.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * @param key   the key
+     * @param value the value to associate to key
+     * @return a map with the same entries of this one, except that key maps to
+     *         value; this map itself, if it already did
+     */
+    public PersistentHashMap<K, V> plus(final K key, final V value) {
+        final int hash = hash(Objects.requireNonNull(key));
+        final boolean[] added = new boolean[1];
+        final Node newRoot = root == null
+                ? BitmapNode.EMPTY.put(hash, 0, key, value, added)
+                : root.put(hash, 0, key, value, added);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @param key the key to remove
+     * @return a map with the same entries of this one, except key; this map
+     *         itself, if it did not contain key
+     */
+    public PersistentHashMap<K, V> minus(final Object key) {
+        if (root == null || key == null) {
+            return this;
+        }
+        final Node newRoot = root.remove(hash(key), 0, key);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(final Object key) {
+        final Object value = find(key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return find(key) != NOT_FOUND;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entries == null) {
+            entries = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entries;
+    }
+
+    private Object find(final Object key) {
+        return root == null || key == null ? NOT_FOUND : root.find(hash(key), 0, key);
+    }
+
+    private static int hash(final Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> Integer.SIZE / 2);
+    }
+
+    private static int bit(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static Object[] insertPair(final Object[] array, final int at, final Object first, final Object second) {
+        final Object[] copy = new Object[array.length + 2];
+        System.arraycopy(array, 0, copy, 0, at);
+        copy[at] = first;
+        copy[at + 1] = second;
+        System.arraycopy(array, at, copy, at + 2, array.length - at);
+        return copy;
+    }
+
+    private static Object[] removePair(final Object[] array, final int at) {
+        final Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, at);
+        System.arraycopy(array, at + 2, copy, at, array.length - at - 2);
+        return copy;
+    }
+
+    private static Object[] replace(final Object[] array, final int at, final Object value) {
+        final Object[] copy = array.clone();
+        copy[at] = value;
+        return copy;
+    }
+
+    /**
+     * A node of the trie: its array holds pairs, either (key, value) or
+     * (null, child node). Nodes are never modified after construction.
+     */
+    private abstract static class Node {
+
+        protected final Object[] array;
+
+        Node(final Object[] array) {
+            this.array = array;
+        }
+
+        /*
+         * Returns the value of key, or NOT_FOUND.
+         */
+        abstract Object find(int hash, int shift, Object key);
+
+        /*
+         * Returns this node if nothing changed; sets added[0] if the key is new.
+         */
+        abstract Node put(int hash, int shift, Object key, Object value, boolean[] added);
+
+        /*
+         * Returns this node if nothing changed, and null if the node is empty.
+         */
+        abstract Node remove(int hash, int shift, Object key);
+    }
+
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+
+        BitmapNode(final int bitmap, final Object[] array) {
+            super(array);
+            this.bitmap = bitmap;
+        }
+
+        private int index(final int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(final int hash, final int shift, final Object key) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            final int i = index(bit);
+            final Object k = array[i];
+            if (k == null) {
+                return ((Node) array[i + 1]).find(hash, shift + BITS, key);
+            }
+            return key.equals(k) ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node put(final int hash, final int shift, final Object key, final Object value, final boolean[] added) {
+            final int bit = bit(hash, shift);
+            final int i = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, insertPair(array, i, key, value));
+            }
+            final Object k = array[i];
+            if (k == null) {
+                final Node child = (Node) array[i + 1];
+                final Node newChild = child.put(hash, shift + BITS, key, value, added);
+                return newChild == child ? this : new BitmapNode(bitmap, replace(array, i + 1, newChild));
+            }
+            if (key.equals(k)) {
+                return array[i + 1] == value ? this : new BitmapNode(bitmap, replace(array, i + 1, value));
+            }
+            added[0] = true;
+            final Node child = pair(shift + BITS, k, array[i + 1], hash, key, value);
+            final Object[] copy = replace(array, i, null);
+            copy[i + 1] = child;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Node remove(final int hash, final int shift, final Object key) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int i = index(bit);
+            final Object k = array[i];
+            if (k == null) {
+                final Node child = (Node) array[i + 1];
+                final Node newChild = child.remove(hash, shift + BITS, key);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild != null) {
+                    return new BitmapNode(bitmap, replace(array, i + 1, newChild));
+                }
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            return bitmap == bit ? null : new BitmapNode(bitmap ^ bit, removePair(array, i));
+        }
+
+        /*
+         * Builds the node holding two keys that share the bits before shift.
+         */
+        private static Node pair(final int shift, final Object key1, final Object value1, final int hash2,
+                final Object key2, final Object value2) {
+            final int hash1 = hash(key1);
+            if (hash1 == hash2) {
+                return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+            }
+            final boolean[] ignored = new boolean[1];
+            return EMPTY.put(hash1, shift, key1, value1, ignored).put(hash2, shift, key2, value2, ignored);
+        }
+    }
+
+    /**
+     * The keys whose whole hashes are equal, in a flat array.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final int hash;
+
+        CollisionNode(final int hash, final Object[] array) {
+            super(array);
+            this.hash = hash;
+        }
+
+        private int indexOf(final Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(final int hash, final int shift, final Object key) {
+            final int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        Node put(final int hash, final int shift, final Object key, final Object value, final boolean[] added) {
+            if (hash != this.hash) {
+                /*
+                 * Pushes this node one level down, next to the new key.
+                 */
+                return new BitmapNode(bit(this.hash, shift), new Object[] {null, this})
+                        .put(hash, shift, key, value, added);
+            }
+            final int i = indexOf(key);
+            if (i >= 0) {
+                return array[i + 1] == value ? this : new CollisionNode(hash, replace(array, i + 1, value));
+            }
+            added[0] = true;
+            return new CollisionNode(hash, insertPair(array, array.length, key, value));
+        }
+
+        @Override
+        Node remove(final int hash, final int shift, final Object key) {
+            final int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            return array.length == 2 ? null : new CollisionNode(hash, removePair(array, i));
+        }
+    }
+
+    /**
+     * Depth-first iterator over the entries of the trie.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        private Object[] array;
+        private int position;
+
+        EntryIterator(final Node root) {
+            array = root == null ? new Object[0] : root.array;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (true) {
+                if (position < array.length) {
+                    if (array[position] != null) {
+                        return true;
+                    }
+                    arrays.push(array);
+                    positions.push(position + 2);
+                    array = ((Node) array[position + 1]).array;
+                    position = 0;
+                } else if (arrays.isEmpty()) {
+                    return false;
+                } else {
+                    array = arrays.pop();
+                    position = positions.pop();
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Map.Entry<K, V> entry = new AbstractMap.SimpleImmutableEntry<>((K) array[position],
+                    (V) array[position + 1]);
+            position += 2;
+            return entry;
+        }
+    }
+}
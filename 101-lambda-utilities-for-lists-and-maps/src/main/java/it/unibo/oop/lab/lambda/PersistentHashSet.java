@@ -0,0 +1,101 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * An immutable hash set, that derives new versions of itself with
+ * {@link #plus} and {@link #minus} instead of being modified. It is backed by
+ * a {@link PersistentHashMap}, and shares its structure the same way.
+ *
+ * Iteration follows the hash order of the elements. Elements cannot be null;
+ * the {@link java.util.Set} mutators throw
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <E> element type
+ */
+public final class PersistentHashSet<E> extends AbstractSet<E> {
+
+    private static final PersistentHashSet<?> EMPTY = new PersistentHashSet<>(PersistentHashMap.empty());
+
+    private final PersistentHashMap<E, Boolean> map;
+
+    private PersistentHashSet(final PersistentHashMap<E, Boolean> map) {
+        super();
+        this.map = map;
+    }
+
+    /**
+     * @param <E> element type
+     * @return the empty set
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentHashSet<E> empty() {
+        return (PersistentHashSet<E>) EMPTY;
+    }
+
+    /**
+     * @param elements the elements of the new set
+     * @param <E>      element type
+     * @return a persistent copy of elements
+     */
+    public static <E> PersistentHashSet<E> copyOf(final Collection<? extends E> elements) {
+        if (elements instanceof PersistentHashSet) {
+            @SuppressWarnings("unchecked")
+            final PersistentHashSet<E> persistent = (PersistentHashSet<E>) elements;
+            return persistent;
+        }
+        return PersistentHashSet.<E>empty().plusAll(elements);
+    }
+
+    /**
+     * @param element the element to add
+     * @return a set with the elements of this one and element; this set
+     *         itself, if it already contained element
+     */
+    public PersistentHashSet<E> plus(final E element) {
+        return wrap(map.plus(element, Boolean.TRUE));
+    }
+
+    /**
+     * @param elements the elements to add
+     * @return a set with the elements of this one and of elements, sharing
+     *         the structure of this one
+     */
+    public PersistentHashSet<E> plusAll(final Collection<? extends E> elements) {
+        PersistentHashMap<E, Boolean> result = map;
+        for (final E element : elements) {
+            result = result.plus(element, Boolean.TRUE);
+        }
+        return wrap(result);
+    }
+
+    /**
+     * @param element the element to remove
+     * @return a set with the elements of this one except element; this set
+     *         itself, if it did not contain element
+     */
+    public PersistentHashSet<E> minus(final Object element) {
+        return wrap(map.minus(element));
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return map.keySet().iterator();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    private PersistentHashSet<E> wrap(final PersistentHashMap<E, Boolean> newMap) {
+        return newMap == map ? this : new PersistentHashSet<>(newMap);
+    }
+}
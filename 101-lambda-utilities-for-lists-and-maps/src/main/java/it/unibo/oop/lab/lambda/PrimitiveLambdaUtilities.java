@@ -0,0 +1,309 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.NoSuchElementException;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Primitive specializations of {@link LambdaUtilities}, working on int[],
+ * long[] and double[] without boxing any value.
+ *
+ * The optional results of optFilter are represented by a copy of the input
+ * plus a presence bitmap, instead of one {@link java.util.Optional} per
+ * element.
+ */
+public final class PrimitiveLambdaUtilities {
+
+    private PrimitiveLambdaUtilities() {
+    }
+
+    /**
+     * @param array the input array
+     * @param op    the process to run on each element
+     * @return a new array containing, for each element of array, the element and
+     *         a processed version
+     */
+    public static int[] dup(final int[] array, final IntUnaryOperator op) {
+        final int[] out = new int[array.length * 2];
+        for (int i = 0; i < array.length; i++) {
+            out[2 * i] = array[i];
+            out[2 * i + 1] = op.applyAsInt(array[i]);
+        }
+        return out;
+    }
+
+    /**
+     * @param array the input array
+     * @param op    the process to run on each element
+     * @return a new array containing, for each element of array, the element and
+     *         a processed version
+     */
+    public static long[] dup(final long[] array, final LongUnaryOperator op) {
+        final long[] out = new long[array.length * 2];
+        for (int i = 0; i < array.length; i++) {
+            out[2 * i] = array[i];
+            out[2 * i + 1] = op.applyAsLong(array[i]);
+        }
+        return out;
+    }
+
+    /**
+     * @param array the input array
+     * @param op    the process to run on each element
+     * @return a new array containing, for each element of array, the element and
+     *         a processed version
+     */
+    public static double[] dup(final double[] array, final DoubleUnaryOperator op) {
+        final double[] out = new double[array.length * 2];
+        for (int i = 0; i < array.length; i++) {
+            out[2 * i] = array[i];
+            out[2 * i + 1] = op.applyAsDouble(array[i]);
+        }
+        return out;
+    }
+
+    /**
+     * @param array the input array
+     * @param pre   predicate to execute
+     * @return for each element, the element if the predicate passes, and an
+     *         empty value otherwise
+     */
+    public static OptionalInts optFilter(final int[] array, final IntPredicate pre) {
+        final long[] bits = Bitmap.create(array.length);
+        for (int i = 0; i < array.length; i++) {
+            if (pre.test(array[i])) {
+                Bitmap.set(bits, i);
+            }
+        }
+        return new OptionalInts(array.clone(), bits);
+    }
+
+    /**
+     * @param array the input array
+     * @param pre   predicate to execute
+     * @return for each element, the element if the predicate passes, and an
+     *         empty value otherwise
+     */
+    public static OptionalLongs optFilter(final long[] array, final LongPredicate pre) {
+        final long[] bits = Bitmap.create(array.length);
+        for (int i = 0; i < array.length; i++) {
+            if (pre.test(array[i])) {
+                Bitmap.set(bits, i);
+            }
+        }
+        return new OptionalLongs(array.clone(), bits);
+    }
+
+    /**
+     * @param array the input array
+     * @param pre   predicate to execute
+     * @return for each element, the element if the predicate passes, and an
+     *         empty value otherwise
+     */
+    public static OptionalDoubles optFilter(final double[] array, final DoublePredicate pre) {
+        final long[] bits = Bitmap.create(array.length);
+        for (int i = 0; i < array.length; i++) {
+            if (pre.test(array[i])) {
+                Bitmap.set(bits, i);
+            }
+        }
+        return new OptionalDoubles(array.clone(), bits);
+    }
+
+    /**
+     * @param array the input array
+     * @param op    a function that, for each element, computes an int key
+     * @return the groups of the elements of the array, based on the mapping done
+     *         by the function
+     */
+    public static IntGroups group(final int[] array, final IntUnaryOperator op) {
+        final IntGroups groups = new IntGroups(1);
+        for (final int value : array) {
+            groups.add(op.applyAsInt(value), value);
+        }
+        return groups;
+    }
+
+    /**
+     * @param array the input array
+     * @param op    a function that, for each element, computes a long key
+     * @return the groups of the elements of the array, based on the mapping done
+     *         by the function
+     */
+    public static LongGroups group(final long[] array, final LongUnaryOperator op) {
+        final LongGroups groups = new LongGroups(1);
+        for (final long value : array) {
+            groups.add(op.applyAsLong(value), value);
+        }
+        return groups;
+    }
+
+    /**
+     * @param array the input array
+     * @param op    a function that, for each element, computes a double key
+     * @return the groups of the elements of the array, based on the mapping done
+     *         by the function; keys and values compare as {@link Double#equals}
+     */
+    public static DoubleGroups group(final double[] array, final DoubleUnaryOperator op) {
+        final DoubleGroups groups = new DoubleGroups(1);
+        for (final double value : array) {
+            groups.add(op.applyAsDouble(value), value);
+        }
+        return groups;
+    }
+
+    private static int checkIndex(final int index, final int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    private static void checkPresent(final boolean present, final int index) {
+        if (!present) {
+            throw new NoSuchElementException("No value present at index " + index);
+        }
+    }
+
+    /**
+     * A sequence of optional ints.
+     */
+    public static final class OptionalInts {
+
+        private final int[] values;
+        private final long[] present;
+
+        private OptionalInts(final int[] values, final long[] present) {
+            this.values = values;
+            this.present = present;
+        }
+
+        /**
+         * @return the number of elements, either present or empty
+         */
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * @param index the index of the element
+         * @return true if the element is present
+         */
+        public boolean isPresent(final int index) {
+            return Bitmap.get(present, checkIndex(index, values.length));
+        }
+
+        /**
+         * @param index the index of the element
+         * @return the element
+         * @throws NoSuchElementException if the element is empty
+         */
+        public int getAsInt(final int index) {
+            checkPresent(isPresent(index), index);
+            return values[index];
+        }
+
+        /**
+         * @return the number of present elements
+         */
+        public int presentCount() {
+            return Bitmap.count(present);
+        }
+    }
+
+    /**
+     * A sequence of optional longs.
+     */
+    public static final class OptionalLongs {
+
+        private final long[] values;
+        private final long[] present;
+
+        private OptionalLongs(final long[] values, final long[] present) {
+            this.values = values;
+            this.present = present;
+        }
+
+        /**
+         * @return the number of elements, either present or empty
+         */
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * @param index the index of the element
+         * @return true if the element is present
+         */
+        public boolean isPresent(final int index) {
+            return Bitmap.get(present, checkIndex(index, values.length));
+        }
+
+        /**
+         * @param index the index of the element
+         * @return the element
+         * @throws NoSuchElementException if the element is empty
+         */
+        public long getAsLong(final int index) {
+            checkPresent(isPresent(index), index);
+            return values[index];
+        }
+
+        /**
+         * @return the number of present elements
+         */
+        public int presentCount() {
+            return Bitmap.count(present);
+        }
+    }
+
+    /**
+     * A sequence of optional doubles.
+     */
+    public static final class OptionalDoubles {
+
+        private final double[] values;
+        private final long[] present;
+
+        private OptionalDoubles(final double[] values, final long[] present) {
+            this.values = values;
+            this.present = present;
+        }
+
+        /**
+         * @return the number of elements, either present or empty
+         */
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * @param index the index of the element
+         * @return true if the element is present
+         */
+        public boolean isPresent(final int index) {
+            return Bitmap.get(present, checkIndex(index, values.length));
+        }
+
+        /**
+         * @param index the index of the element
+         * @return the element
+         * @throws NoSuchElementException if the element is empty
+         */
+        public double getAsDouble(final int index) {
+            checkPresent(isPresent(index), index);
+            return values[index];
+        }
+
+        /**
+         * @return the number of present elements
+         */
+        public int presentCount() {
+            return Bitmap.count(present);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Arrays;
+
+/**
+ * Portable {@link VectorKernels}, used when the Vector API is not available.
+ */
+final class ScalarKernels implements VectorKernels {
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+
+    @Override
+    public int[] dup(final int[] values, final ArithmeticOp op) {
+        return PrimitiveLambdaUtilities.dup(values, op.asIntOperator());
+    }
+
+    @Override
+    public long[] dup(final long[] values, final ArithmeticOp op) {
+        return PrimitiveLambdaUtilities.dup(values, op.asLongOperator());
+    }
+
+    @Override
+    public int[] filter(final int[] values, final Comparison pre) {
+        final int[] out = new int[values.length];
+        int size = 0;
+        for (final int value : values) {
+            if (pre.test(value)) {
+                out[size++] = value;
+            }
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    @Override
+    public long[] filter(final long[] values, final Comparison pre) {
+        final long[] out = new long[values.length];
+        int size = 0;
+        for (final long value : values) {
+            if (pre.test(value)) {
+                out[size++] = value;
+            }
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    @Override
+    public int[] countByMod(final int[] values, final int modulus) {
+        checkModulus(modulus);
+        final int[] counts = new int[modulus];
+        for (final int value : values) {
+            counts[Math.floorMod(value, modulus)]++;
+        }
+        return counts;
+    }
+
+    @Override
+    public int[][] groupByMod(final int[] values, final int modulus) {
+        checkModulus(modulus);
+        final int[] residues = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            residues[i] = Math.floorMod(values[i], modulus);
+        }
+        return partition(values, residues, modulus);
+    }
+
+    /**
+     * @param values   the values
+     * @param residues the residue of each value
+     * @param modulus  the modulus
+     * @return the values, partitioned by residue
+     */
+    static int[][] partition(final int[] values, final int[] residues, final int modulus) {
+        final int[] counts = new int[modulus];
+        for (final int residue : residues) {
+            counts[residue]++;
+        }
+        final int[][] groups = new int[modulus][];
+        for (int r = 0; r < modulus; r++) {
+            groups[r] = new int[counts[r]];
+        }
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < values.length; i++) {
+            groups[residues[i]][counts[residues[i]]++] = values[i];
+        }
+        return groups;
+    }
+
+    /**
+     * @param modulus the modulus
+     */
+    static void checkModulus(final int modulus) {
+        if (modulus <= 0) {
+            throw new IllegalArgumentException("The modulus must be positive: " + modulus);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * N-way union of sets, choosing the cheapest representation for the inputs.
+ */
+final class Unions {
+
+    /*
+     * Integers are stored in a bitset only if it takes at most this many bits
+     * per element.
+     */
+    private static final int DENSE_BITS_PER_ELEMENT = 64;
+    /*
+     * The bitset is filled in a single pass, starting from the first element,
+     * in both directions: twice its range must be an int.
+     */
+    private static final long MAX_DENSE_RANGE = Integer.MAX_VALUE / 2;
+    /*
+     * The classes of the sets returned by Set.of and Set.copyOf, some of which
+     * may be the same.
+     */
+    private static final List<Class<?>> IMMUTABLE = List.of(Set.of().getClass(), Set.of(1).getClass(),
+            Set.of(1, 2, 3).getClass());
+
+    private Unions() {
+    }
+
+    /**
+     * @param sets the sets to merge
+     * @param <T>  element type
+     * @return an unmodifiable set with the elements of all sets
+     */
+    static <T> Set<T> of(final Collection<? extends Set<? extends T>> sets) {
+        if (sets.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Set<? extends T> largest = Collections.max(sets, Comparator.comparingInt(Set::size));
+        if (containsAll(largest, sets)) {
+            return readOnly(largest);
+        }
+        long total = 0;
+        for (final Set<? extends T> set : sets) {
+            total += set.size();
+        }
+        final Set<T> dense = denseIntegers(sets, total);
+        if (dense != null) {
+            return dense;
+        }
+        final int capacity = (int) Math.min(Integer.MAX_VALUE - 8, total);
+        final Comparator<?> comparator = commonComparator(sets);
+        if (comparator != null) {
+            return mergeSorted(sets, comparator, capacity);
+        }
+        final Set<T> merged = new LinkedHashSet<>(GroupAccumulator.capacity(capacity));
+        sets.forEach(merged::addAll);
+        return Collections.unmodifiableSet(merged);
+    }
+
+    private static boolean containsAll(final Set<?> largest, final Collection<? extends Set<?>> sets) {
+        for (final Set<?> set : sets) {
+            if (set != largest && !largest.containsAll(set)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Sets that cannot change are returned as they are, the others through a
+     * read-only view.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Set<T> readOnly(final Set<? extends T> set) {
+        if (set instanceof PersistentHashSet || set instanceof DenseIntSet || set instanceof SortedArraySet
+                || IMMUTABLE.contains(set.getClass())) {
+            /*
+             * Only read, so a set of a subtype is a set of T.
+             */
+            return (Set<T>) set;
+        }
+        return Collections.unmodifiableSet(set);
+    }
+
+    /*
+     * Stores integers in a bitset, offset by the smallest one, if they are all
+     * such and dense enough. The bits are set while the elements are checked,
+     * relative to the first one, and the check stops at the first element that
+     * is not an integer, or makes the range too wide.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Set<T> denseIntegers(final Collection<? extends Set<? extends T>> sets, final long total) {
+        final long maxRange = Math.min(total * DENSE_BITS_PER_ELEMENT, MAX_DENSE_RANGE);
+        final BitSet bits = new BitSet();
+        boolean first = true;
+        long base = 0;
+        int min = 0;
+        int max = 0;
+        for (final Set<? extends T> set : sets) {
+            for (final T element : set) {
+                if (!(element instanceof Integer)) {
+                    return null;
+                }
+                final int value = (Integer) element;
+                if (first) {
+                    base = (long) value - maxRange;
+                    min = value;
+                    max = value;
+                    first = false;
+                }
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                /*
+                 * Computed as a long not to overflow.
+                 */
+                if ((long) max - min >= maxRange) {
+                    return null;
+                }
+                bits.set((int) (value - base));
+            }
+        }
+        if (first) {
+            return null;
+        }
+        /*
+         * All the elements are Integers, so T is a supertype of Integer.
+         */
+        return (Set<T>) new DenseIntSet(bits.get((int) (min - base), (int) (max - base) + 1), min);
+    }
+
+    /*
+     * Returns the comparator shared by all the sets if they are all sorted, or
+     * null. Natural ordering is represented by Comparator.naturalOrder().
+     */
+    private static Comparator<?> commonComparator(final Collection<? extends Set<?>> sets) {
+        Comparator<?> common = null;
+        for (final Set<?> set : sets) {
+            if (!(set instanceof SortedSet)) {
+                return null;
+            }
+            final Comparator<?> comparator = Objects.requireNonNullElse(
+                ((SortedSet<?>) set).comparator(), Comparator.naturalOrder()
+            );
+            if (common != null && !common.equals(comparator)) {
+                return null;
+            }
+            common = comparator;
+        }
+        return common;
+    }
+
+    /*
+     * K-way merge of sorted sets into an array, in ascending order: equal
+     * elements come out next to each other, so duplicates are skipped by
+     * comparing each element with the previous one, without hashing. The
+     * comparator is the one of all the sets.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Set<T> mergeSorted(final Collection<? extends Set<? extends T>> sets,
+            final Comparator<?> comparator, final int capacity) {
+        final Comparator<? super T> order = (Comparator<? super T>) comparator;
+        final PriorityQueue<Head<T>> heads = new PriorityQueue<>(sets.size(), (a, b) -> order.compare(a.value, b.value));
+        for (final Set<? extends T> set : sets) {
+            final Iterator<? extends T> it = set.iterator();
+            if (it.hasNext()) {
+                heads.add(new Head<>(it));
+            }
+        }
+        final Object[] merged = new Object[capacity];
+        int size = 0;
+        while (!heads.isEmpty()) {
+            final Head<T> head = heads.poll();
+            if (size == 0 || order.compare((T) merged[size - 1], head.value) != 0) {
+                merged[size++] = head.value;
+            }
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return new SortedArraySet<>(merged, size, order);
+    }
+
+    private static final class Head<T> {
+
+        private final Iterator<? extends T> iterator;
+        private T value;
+
+        Head(final Iterator<? extends T> iterator) {
+            this.iterator = iterator;
+            this.value = iterator.next();
+        }
+
+        boolean advance() {
+            if (iterator.hasNext()) {
+                value = iterator.next();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * An unmodifiable set backed by a sorted array without duplicates, that
+     * looks up elements by binary search, and iterates in ascending order.
+     *
+     * @param <T> element type
+     */
+    private static final class SortedArraySet<T> extends AbstractSet<T> {
+
+        private final Object[] elements;
+        private final int size;
+        private final Comparator<? super T> comparator;
+
+        SortedArraySet(final Object[] elements, final int size, final Comparator<? super T> comparator) {
+            this.elements = elements;
+            this.size = size;
+            this.comparator = comparator;
+        }
+
+        /*
+         * Like the one of TreeSet, throws ClassCastException for elements that
+         * cannot be compared with the ones of the set.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(final Object o) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                final int comparison = comparator.compare((T) elements[middle], (T) o);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return (T) elements[next++];
+                }
+            };
+        }
+    }
+
+    /**
+     * An unmodifiable set of integers backed by a bitset, where bit i stands
+     * for offset + i, that iterates in ascending order.
+     */
+    private static final class DenseIntSet extends AbstractSet<Integer> {
+
+        private final BitSet bits;
+        private final int offset;
+        private final int size;
+
+        DenseIntSet(final BitSet bits, final int offset) {
+            this.bits = bits;
+            this.offset = offset;
+            this.size = bits.cardinality();
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            if (!(o instanceof Integer)) {
+                return false;
+            }
+            final long index = (long) (Integer) o - offset;
+            return index >= 0 && index < bits.length() && bits.get((int) index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<>() {
+
+                private int next = bits.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public Integer next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    final int current = next;
+                    next = bits.nextSetBit(current + 1);
+                    return current + offset;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package it.unibo.oop.lab.lambda;
+
+/**
+ * Kernels for the element-wise work of {@link PrimitiveLambdaUtilities}, for
+ * operations described by {@link ArithmeticOp} and {@link Comparison}.
+ *
+ * {@link #get()} returns an implementation based on the incubating Vector API
+ * if the jdk.incubator.vector module is available (e.g. when running with
+ * --add-modules jdk.incubator.vector), and a scalar one otherwise.
+ */
+public interface VectorKernels {
+
+    /**
+     * @return the SIMD kernels if the Vector API is available, the scalar ones
+     *         otherwise
+     */
+    static VectorKernels get() {
+        return KernelsHolder.INSTANCE;
+    }
+
+    /**
+     * @return true if these kernels use vector instructions
+     */
+    boolean isVectorized();
+
+    /**
+     * @param values the input array
+     * @param op     the operation
+     * @return each value followed by op(value), as in
+     *         {@link PrimitiveLambdaUtilities#dup(int[], java.util.function.IntUnaryOperator)}
+     */
+    int[] dup(int[] values, ArithmeticOp op);
+
+    /**
+     * @param values the input array
+     * @param op     the operation
+     * @return each value followed by op(value), as in
+     *         {@link PrimitiveLambdaUtilities#dup(long[], java.util.function.LongUnaryOperator)}
+     */
+    long[] dup(long[] values, ArithmeticOp op);
+
+    /**
+     * @param values the input array
+     * @param pre    the comparison
+     * @return the values that pass the comparison, in order
+     */
+    int[] filter(int[] values, Comparison pre);
+
+    /**
+     * @param values the input array
+     * @param pre    the comparison
+     * @return the values that pass the comparison, in order
+     */
+    long[] filter(long[] values, Comparison pre);
+
+    /**
+     * @param values  the input array
+     * @param modulus a positive modulus
+     * @return for each residue r in [0, modulus), the number of values v such
+     *         that Math.floorMod(v, modulus) == r
+     */
+    int[] countByMod(int[] values, int modulus);
+
+    /**
+     * @param values  the input array
+     * @param modulus a positive modulus
+     * @return for each residue r in [0, modulus), the values v such that
+     *         Math.floorMod(v, modulus) == r, in order and with duplicates
+     */
+    int[][] groupByMod(int[] values, int modulus);
+}
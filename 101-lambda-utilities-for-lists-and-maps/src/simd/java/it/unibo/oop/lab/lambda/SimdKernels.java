@@ -0,0 +1,209 @@
+package it.unibo.oop.lab.lambda;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link VectorKernels} based on the incubating Vector API. Only loaded by
+ * {@link KernelsHolder} when the jdk.incubator.vector module is available.
+ */
+final class SimdKernels implements VectorKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    /*
+     * Shuffles interleaving the lower (resp. upper) halves of two vectors:
+     * negative (exceptional) indexes select lanes of the second vector.
+     */
+    private final VectorShuffle<Integer> intsLow = zip(INTS, false);
+    private final VectorShuffle<Integer> intsHigh = zip(INTS, true);
+    private final VectorShuffle<Long> longsLow = zip(LONGS, false);
+    private final VectorShuffle<Long> longsHigh = zip(LONGS, true);
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    public int[] dup(final int[] values, final ArithmeticOp op) {
+        final int[] out = new int[values.length * 2];
+        final int step = INTS.length();
+        final int bound = INTS.loopBound(values.length);
+        final VectorOperators.Binary operator = binary(op.getKind());
+        final int operand = (int) op.getOperand();
+        int i = 0;
+        for (; i < bound; i += step) {
+            final IntVector x = IntVector.fromArray(INTS, values, i);
+            final IntVector y = x.lanewise(operator, operand);
+            x.rearrange(intsLow, y).intoArray(out, 2 * i);
+            x.rearrange(intsHigh, y).intoArray(out, 2 * i + step);
+        }
+        for (; i < values.length; i++) {
+            out[2 * i] = values[i];
+            out[2 * i + 1] = op.applyAsInt(values[i]);
+        }
+        return out;
+    }
+
+    @Override
+    public long[] dup(final long[] values, final ArithmeticOp op) {
+        final long[] out = new long[values.length * 2];
+        final int step = LONGS.length();
+        final int bound = LONGS.loopBound(values.length);
+        final VectorOperators.Binary operator = binary(op.getKind());
+        int i = 0;
+        for (; i < bound; i += step) {
+            final LongVector x = LongVector.fromArray(LONGS, values, i);
+            final LongVector y = x.lanewise(operator, op.getOperand());
+            x.rearrange(longsLow, y).intoArray(out, 2 * i);
+            x.rearrange(longsHigh, y).intoArray(out, 2 * i + step);
+        }
+        for (; i < values.length; i++) {
+            out[2 * i] = values[i];
+            out[2 * i + 1] = op.applyAsLong(values[i]);
+        }
+        return out;
+    }
+
+    @Override
+    public int[] filter(final int[] values, final Comparison pre) {
+        final int[] out = new int[values.length];
+        final int bound = INTS.loopBound(values.length);
+        final VectorOperators.Comparison comparison = comparison(pre.getKind());
+        final int operand = (int) pre.getOperand();
+        int size = 0;
+        int i = 0;
+        for (; i < bound; i += INTS.length()) {
+            final VectorMask<Integer> mask = IntVector.fromArray(INTS, values, i).compare(comparison, operand);
+            /*
+             * Masked compress: copy the selected lanes, lowest first.
+             */
+            for (long bits = mask.toLong(); bits != 0; bits &= bits - 1) {
+                out[size++] = values[i + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        for (; i < values.length; i++) {
+            if (pre.test(values[i])) {
+                out[size++] = values[i];
+            }
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    @Override
+    public long[] filter(final long[] values, final Comparison pre) {
+        final long[] out = new long[values.length];
+        final int bound = LONGS.loopBound(values.length);
+        final VectorOperators.Comparison comparison = comparison(pre.getKind());
+        int size = 0;
+        int i = 0;
+        for (; i < bound; i += LONGS.length()) {
+            final VectorMask<Long> mask = LongVector.fromArray(LONGS, values, i).compare(comparison, pre.getOperand());
+            for (long bits = mask.toLong(); bits != 0; bits &= bits - 1) {
+                out[size++] = values[i + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        for (; i < values.length; i++) {
+            if (pre.test(values[i])) {
+                out[size++] = values[i];
+            }
+        }
+        return Arrays.copyOf(out, size);
+    }
+
+    @Override
+    public int[] countByMod(final int[] values, final int modulus) {
+        final int[] residues = residues(values, modulus);
+        final int[] counts = new int[modulus];
+        for (final int residue : residues) {
+            counts[residue]++;
+        }
+        return counts;
+    }
+
+    @Override
+    public int[][] groupByMod(final int[] values, final int modulus) {
+        return ScalarKernels.partition(values, residues(values, modulus), modulus);
+    }
+
+    /*
+     * Vectorized Math.floorMod: x - (x / m) * m truncates towards zero, so
+     * negative remainders are shifted by m.
+     */
+    private static int[] residues(final int[] values, final int modulus) {
+        ScalarKernels.checkModulus(modulus);
+        final int[] residues = new int[values.length];
+        final int bound = INTS.loopBound(values.length);
+        int i = 0;
+        for (; i < bound; i += INTS.length()) {
+            final IntVector x = IntVector.fromArray(INTS, values, i);
+            final IntVector r = x.sub(x.div(modulus).mul(modulus));
+            r.add(modulus, r.compare(VectorOperators.LT, 0)).intoArray(residues, i);
+        }
+        for (; i < values.length; i++) {
+            residues[i] = Math.floorMod(values[i], modulus);
+        }
+        return residues;
+    }
+
+    private static <E> VectorShuffle<E> zip(final VectorSpecies<E> species, final boolean high) {
+        final int length = species.length();
+        final int offset = high ? length / 2 : 0;
+        final int[] indexes = new int[length];
+        for (int j = 0; j < length / 2; j++) {
+            indexes[2 * j] = offset + j;
+            indexes[2 * j + 1] = offset + j - length;
+        }
+        return VectorShuffle.fromArray(species, indexes, 0);
+    }
+
+    private static VectorOperators.Binary binary(final ArithmeticOp.Kind kind) {
+        switch (kind) {
+            case ADD:
+                return VectorOperators.ADD;
+            case SUB:
+                return VectorOperators.SUB;
+            case MUL:
+                return VectorOperators.MUL;
+            case AND:
+                return VectorOperators.AND;
+            case OR:
+                return VectorOperators.OR;
+            case XOR:
+                return VectorOperators.XOR;
+            case MIN:
+                return VectorOperators.MIN;
+            case MAX:
+                return VectorOperators.MAX;
+            default:
+                throw new IllegalStateException("Unexpected operation: " + kind);
+        }
+    }
+
+    private static VectorOperators.Comparison comparison(final Comparison.Kind kind) {
+        switch (kind) {
+            case EQ:
+                return VectorOperators.EQ;
+            case NE:
+                return VectorOperators.NE;
+            case LT:
+                return VectorOperators.LT;
+            case LE:
+                return VectorOperators.LE;
+            case GT:
+                return VectorOperators.GT;
+            case GE:
+                return VectorOperators.GE;
+            default:
+                throw new IllegalStateException("Unexpected comparison: " + kind);
+        }
+    }
+}
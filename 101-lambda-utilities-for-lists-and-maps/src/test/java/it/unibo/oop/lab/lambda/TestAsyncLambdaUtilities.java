@@ -0,0 +1,130 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.AsyncLambdaUtilities}.
+ */
+final class TestAsyncLambdaUtilities {
+
+    private final List<Integer> list = IntStream.range(0, 200).boxed().collect(Collectors.toList());
+
+    /**
+     * Test that blocking calls overlap, up to the limit, and that the order is
+     * preserved.
+     *
+     * @throws Exception if the computation fails
+     */
+    @Test
+    void testDupAndGroup() throws Exception {
+        final var running = new AtomicInteger();
+        final var peak = new AtomicInteger();
+        try (var async = new AsyncLambdaUtilities(8, Duration.ofSeconds(10))) {
+            final var dup = async.dup(list, x -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(2);
+                running.decrementAndGet();
+                return x + 1000;
+            });
+            assertEquals(LambdaUtilities.dup(list, x -> x + 1000), dup.get());
+            assertTrue(peak.get() > 1 && peak.get() <= 8);
+            final var group = async.group(list, x -> x % 3).get();
+            final var expected = LambdaUtilities.group(list, x -> x % 3);
+            assertEquals(List.copyOf(expected.keySet()), List.copyOf(group.keySet()));
+            expected.forEach((k, v) -> assertEquals(List.copyOf(v), List.copyOf(group.get(k))));
+            assertEquals(List.of(), async.dup(List.<Integer>of(), x -> x).get());
+        }
+    }
+
+    /**
+     * Test per-call timeouts and failures.
+     */
+    @Test
+    void testFailures() {
+        try (var async = new AsyncLambdaUtilities(4, Duration.ofMillis(50))) {
+            final var slow = async.dup(list, x -> {
+                if (x == 10) {
+                    sleep(10_000);
+                }
+                return x;
+            });
+            assertInstanceOf(TimeoutException.class, assertThrows(ExecutionException.class, slow::get).getCause());
+            final var failing = async.group(list, x -> {
+                if (x == 5) {
+                    throw new IllegalStateException("boom");
+                }
+                return x;
+            });
+            assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, failing::get).getCause());
+        }
+    }
+
+    /**
+     * Test that an error thrown by a call fails the operation at once, not at
+     * the timeout of the call.
+     */
+    @Test
+    void testErrors() {
+        try (var async = new AsyncLambdaUtilities(4, Duration.ofMinutes(1))) {
+            final var failing = async.dup(list, x -> {
+                if (x == 5) {
+                    throw new AssertionError("boom");
+                }
+                return x;
+            });
+            assertInstanceOf(AssertionError.class,
+                    assertThrows(ExecutionException.class, () -> failing.get(10, TimeUnit.SECONDS)).getCause());
+        }
+    }
+
+    /**
+     * Test that operations fail, instead of never completing, when their calls
+     * cannot be submitted because the utilities have been closed.
+     *
+     * @throws Exception if the test is interrupted
+     */
+    @Test
+    void testClosed() throws Exception {
+        final var async = new AsyncLambdaUtilities(2, Duration.ofSeconds(10));
+        final var started = new CountDownLatch(1);
+        final var running = async.dup(list, x -> {
+            started.countDown();
+            sleep(5);
+            return x;
+        });
+        started.await();
+        async.close();
+        assertInstanceOf(RejectedExecutionException.class,
+                assertThrows(ExecutionException.class, () -> running.get(10, TimeUnit.SECONDS)).getCause());
+        final var rejected = async.group(list, x -> x);
+        assertInstanceOf(RejectedExecutionException.class,
+                assertThrows(ExecutionException.class, () -> rejected.get(10, TimeUnit.SECONDS)).getCause());
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
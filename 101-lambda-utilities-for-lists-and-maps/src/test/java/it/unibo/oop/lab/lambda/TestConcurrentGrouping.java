@@ -0,0 +1,49 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.ConcurrentGrouping}.
+ */
+final class TestConcurrentGrouping {
+
+    /**
+     * Test that many producers give the same groups of a sequential group.
+     *
+     * @throws InterruptedException if interrupted while joining the producers
+     */
+    @Test
+    void testManyProducers() throws InterruptedException {
+        final int producers = 8;
+        final int perProducer = 20_000;
+        final var grouping = new ConcurrentGrouping<Integer, Integer>(x -> x % 13);
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int from = p * perProducer;
+            final Thread t = new Thread(() -> IntStream.range(from, from + perProducer).forEach(grouping::add));
+            threads.add(t);
+            t.start();
+        }
+        for (final Thread t : threads) {
+            t.join();
+        }
+        final List<Integer> all = IntStream.range(0, producers * perProducer).boxed().collect(Collectors.toList());
+        final var snapshot = grouping.snapshot();
+        assertEquals(LambdaUtilities.group(all, x -> x % 13), snapshot);
+        assertEquals(13, grouping.size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.put(100, Set.of()));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.get(0).add(-1));
+    }
+}
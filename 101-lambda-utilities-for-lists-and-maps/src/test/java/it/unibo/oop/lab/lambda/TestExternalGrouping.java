@@ -0,0 +1,128 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.ExternalGrouping}.
+ */
+final class TestExternalGrouping {
+
+    /**
+     * Test that small inputs are grouped in memory.
+     *
+     * @throws IOException if the grouping fails
+     */
+    @Test
+    void testInMemory() throws IOException {
+        final List<Integer> list = List.of(1, 2, 3, 4, 5);
+        final var grouping = new ExternalGrouping<Integer, String>(
+            x -> x % 2 == 0 ? "even" : "odd", ExternalGrouping.STRINGS, ExternalGrouping.INTEGERS, 100
+        );
+        try (var cursor = grouping.group(list.iterator())) {
+            assertFalse(cursor.isSpilled());
+            assertEquals(LambdaUtilities.group(list, x -> x % 2 == 0 ? "even" : "odd"), drain(cursor));
+        }
+    }
+
+    /**
+     * Test that spilled groupings give the same result of group, with the
+     * elements of each bucket in encounter order.
+     *
+     * @throws IOException if the grouping fails
+     */
+    @Test
+    void testSpilled() throws IOException {
+        final List<String> list = IntStream.range(0, 50_000).mapToObj(i -> "e" + i * 31 % 50_000)
+            .collect(Collectors.toList());
+        final var grouping = new ExternalGrouping<String, Integer>(
+            x -> x.hashCode() % 997, ExternalGrouping.INTEGERS, ExternalGrouping.STRINGS, 1000, 16
+        );
+        try (var cursor = grouping.group(list.iterator())) {
+            assertTrue(cursor.isSpilled());
+            final var actual = drain(cursor);
+            final var expected = LambdaUtilities.group(list, x -> x.hashCode() % 997);
+            assertEquals(expected, actual);
+            expected.forEach((k, v) -> assertEquals(List.copyOf(v), List.copyOf(actual.get(k))));
+        }
+    }
+
+    /**
+     * Test that a skewed key distribution, that overfills some partitions, is
+     * repartitioned instead of being loaded over budget.
+     *
+     * @throws IOException if the grouping fails
+     */
+    @Test
+    void testSkewed() throws IOException {
+        /*
+         * 80% of the elements share 50 keys, which all end up in the same few
+         * partitions, each far above the budget; the others have a key each.
+         */
+        final List<Integer> list = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+        final Function<Integer, Integer> key = x -> x < 40_000 ? x % 50 : x;
+        final var grouping = new ExternalGrouping<>(key, ExternalGrouping.INTEGERS, ExternalGrouping.INTEGERS, 1000, 4);
+        try (var cursor = grouping.group(list.iterator())) {
+            assertTrue(cursor.isSpilled());
+            final var actual = drain(cursor);
+            final var expected = LambdaUtilities.group(list, key);
+            assertEquals(expected, actual);
+            expected.forEach((k, v) -> assertEquals(List.copyOf(v), List.copyOf(actual.get(k))));
+            assertTrue(cursor.getLargestLoad() <= 1000, "Loaded " + cursor.getLargestLoad() + " elements");
+        }
+    }
+
+    /**
+     * Test that a key with more elements than the budget is returned whole,
+     * the only case in which the budget is exceeded, and that closing the
+     * cursor halfway deletes all the files.
+     *
+     * @throws IOException if the grouping fails
+     */
+    @Test
+    void testSingleLargeKey() throws IOException {
+        final List<String> list = IntStream.range(0, 10_000).mapToObj(i -> "e" + i).collect(Collectors.toList());
+        final Function<String, String> key = x -> x.length() < 5 ? "short" : x;
+        final var grouping = new ExternalGrouping<>(key, ExternalGrouping.STRINGS, ExternalGrouping.STRINGS, 100, 8);
+        try (var cursor = grouping.group(list.iterator())) {
+            final var actual = drain(cursor);
+            assertEquals(LambdaUtilities.group(list, key), actual);
+            assertEquals(1000, cursor.getLargestLoad());
+        }
+        final int before = temporaryDirectories();
+        final var cursor = grouping.group(list.iterator());
+        cursor.next();
+        cursor.close();
+        assertEquals(before, temporaryDirectories());
+    }
+
+    private static int temporaryDirectories() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return (int) files.filter(p -> p.getFileName().toString().startsWith("group")).count();
+        }
+    }
+
+    private static <R, T> Map<R, Set<T>> drain(final ExternalGrouping.Cursor<R, T> cursor) {
+        final Map<R, Set<T>> result = new HashMap<>();
+        cursor.forEachRemaining(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.GroupedIndex}.
+ */
+final class TestGroupedIndex {
+
+    /**
+     * Test that the view always matches a regrouping of the current list.
+     */
+    @Test
+    void testMatchesRegrouping() {
+        final Random random = new Random(7);
+        final List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            list.add(random.nextInt(50));
+        }
+        final GroupedIndex<Integer, Integer> index = new GroupedIndex<>(list, x -> x % 7);
+        final Map<Integer, Set<Integer>> view = index.asMap();
+        for (int step = 0; step < 2000; step++) {
+            final int i = random.nextInt(list.size());
+            switch (step % 3) {
+                case 0:
+                    list.add(random.nextInt(50));
+                    index.add(list.get(list.size() - 1));
+                    break;
+                case 1:
+                    index.remove(list.remove(i));
+                    list.add(random.nextInt(50));
+                    index.add(list.get(list.size() - 1));
+                    break;
+                default:
+                    index.update(list.set(i, random.nextInt(50)), list.get(i));
+                    break;
+            }
+        }
+        assertEquals(LambdaUtilities.group(list, x -> x % 7), view);
+    }
+
+    /**
+     * Test occurrence counting, removal of empty buckets and read-only views.
+     */
+    @Test
+    void testOccurrences() {
+        final GroupedIndex<String, Integer> index = new GroupedIndex<>(List.of("a", "bb", "a"), String::length);
+        assertEquals(Map.of(1, Set.of("a"), 2, Set.of("bb")), index.asMap());
+        assertFalse(index.remove("a"));
+        assertEquals(Set.of("a"), index.asMap().get(1));
+        assertTrue(index.remove("a"));
+        assertEquals(Map.of(2, Set.of("bb")), index.asMap());
+        assertFalse(index.remove("zzz"));
+        assertTrue(index.add("ccc"));
+        assertFalse(index.add("ccc"));
+        index.update("bb", "d");
+        assertEquals(Map.of(1, Set.of("d"), 3, Set.of("ccc")), index.asMap());
+        assertThrows(UnsupportedOperationException.class, () -> index.asMap().get(1).add("e"));
+        assertThrows(UnsupportedOperationException.class, () -> index.asMap().remove(1));
+    }
+
+    /**
+     * Test that a key whose bucket empties and fills again moves to the end,
+     * and that the view cannot change the index.
+     */
+    @Test
+    void testKeyOrder() {
+        final GroupedIndex<String, Integer> index = new GroupedIndex<>(List.of("a", "bb", "ccc"), String::length);
+        final Map<Integer, Set<String>> view = index.asMap();
+        assertEquals(List.of(1, 2, 3), List.copyOf(view.keySet()));
+        index.add("e");
+        index.update("a", "d");
+        assertEquals(List.of(1, 2, 3), List.copyOf(view.keySet()));
+        index.update("bb", "ff");
+        assertEquals(List.of(1, 3, 2), List.copyOf(view.keySet()));
+        assertEquals(List.of(Set.of("e", "d"), Set.of("ccc"), Set.of("ff")), List.copyOf(view.values()));
+        assertThrows(UnsupportedOperationException.class, () -> view.values().iterator().next().clear());
+        assertThrows(UnsupportedOperationException.class, () -> view.entrySet().iterator().remove());
+        assertThrows(UnsupportedOperationException.class, view::clear);
+        assertEquals(3, view.size());
+    }
+}
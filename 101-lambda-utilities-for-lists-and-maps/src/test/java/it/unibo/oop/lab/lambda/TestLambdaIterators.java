@@ -0,0 +1,68 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.LambdaIterators}.
+ */
+final class TestLambdaIterators {
+
+    private static final List<Integer> LIST = List.of(1, 2, 3, 4, 5, 6);
+
+    /**
+     * Test lazy and push-based dup.
+     */
+    @Test
+    void testDup() {
+        final List<Integer> pulled = new ArrayList<>();
+        LambdaIterators.dup(LIST.iterator(), x -> x + 100).forEachRemaining(pulled::add);
+        assertEquals(LambdaUtilities.dup(LIST, x -> x + 100), pulled);
+        final List<Integer> pushed = new ArrayList<>();
+        LambdaIterators.dup(LIST.spliterator(), x -> x + 100, pushed::add);
+        assertEquals(pulled, pushed);
+        final Iterator<Integer> infinite = LambdaIterators.dup(IntStream.iterate(0, i -> i + 1).iterator(), x -> -x);
+        assertEquals(0, infinite.next());
+        assertEquals(0, infinite.next());
+        assertEquals(1, infinite.next());
+        assertEquals(-1, infinite.next());
+    }
+
+    /**
+     * Test lazy and push-based optFilter.
+     */
+    @Test
+    void testOptFilter() {
+        final List<Optional<Integer>> pulled = new ArrayList<>();
+        LambdaIterators.optFilter(LIST.iterator(), x -> x % 3 == 0).forEachRemaining(pulled::add);
+        assertEquals(LambdaUtilities.optFilter(LIST, x -> x % 3 == 0), pulled);
+        final List<Optional<Integer>> pushed = new ArrayList<>();
+        LambdaIterators.optFilter(LIST.spliterator(), x -> x % 3 == 0, pushed::add);
+        assertEquals(pulled, pushed);
+        assertFalse(LambdaIterators.optFilter(List.<Integer>of().iterator(), x -> true).hasNext());
+    }
+
+    /**
+     * Test one-shot and incremental group.
+     */
+    @Test
+    void testGroup() {
+        final var expected = LambdaUtilities.group(LIST, x -> x % 2 == 0 ? "even" : "odd");
+        assertEquals(expected, LambdaIterators.group(LIST.spliterator(), x -> x % 2 == 0 ? "even" : "odd"));
+        final var grouping = LambdaIterators.<String, Integer>newGrouping();
+        LambdaIterators.group(LIST.subList(0, 3).spliterator(), x -> x % 2 == 0 ? "even" : "odd", grouping);
+        LambdaIterators.group(LIST.subList(3, 6).spliterator(), x -> x % 2 == 0 ? "even" : "odd", grouping);
+        assertEquals(expected, grouping);
+    }
+}
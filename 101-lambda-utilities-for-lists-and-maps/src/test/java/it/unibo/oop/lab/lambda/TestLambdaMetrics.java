@@ -0,0 +1,91 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import it.unibo.oop.lab.lambda.LambdaMetrics.Operation;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.LambdaMetrics}.
+ */
+final class TestLambdaMetrics {
+
+    /**
+     * Restores the default state.
+     */
+    @AfterEach
+    void disable() {
+        LambdaMetrics.setEnabled(false);
+        LambdaMetrics.reset();
+    }
+
+    /**
+     * Test the in-process counters.
+     */
+    @Test
+    void testCounters() {
+        LambdaMetrics.reset();
+        LambdaUtilities.dup(List.of(1, 2, 3), x -> x);
+        assertEquals(0, LambdaMetrics.snapshot(Operation.DUP).getCalls());
+        LambdaMetrics.setEnabled(true);
+        LambdaUtilities.dup(List.of(1, 2, 3), x -> x);
+        LambdaUtilities.dup(List.of(1), x -> x);
+        LambdaUtilities.union(Set.of(1, 2), Set.of(2, 3));
+        final var dup = LambdaMetrics.snapshot(Operation.DUP);
+        assertEquals(2, dup.getCalls());
+        assertEquals(4, dup.getInputElements());
+        assertEquals(8, dup.getOutputElements());
+        assertEquals(2, Arrays.stream(dup.getHistogram()).sum());
+        assertTrue(dup.getLatencyUpperBound(1) >= dup.getTotalNanos() / 2);
+        assertEquals(3, LambdaMetrics.snapshot(Operation.UNION).getOutputElements());
+        assertEquals(0, LambdaMetrics.snapshot(Operation.GROUP).getLatencyUpperBound(0.5));
+        LambdaUtilities.group(List.of(1, 1, 2, 2, 3), x -> x % 2);
+        final var group = LambdaMetrics.snapshot(Operation.GROUP);
+        assertEquals(5, group.getInputElements());
+        assertEquals(3, group.getOutputElements());
+    }
+
+    /**
+     * Test the Flight Recorder events.
+     *
+     * @throws IOException if the recording cannot be written
+     */
+    @Test
+    void testEvents() throws IOException {
+        LambdaMetrics.setEnabled(true);
+        final Path file = Files.createTempFile("lambda", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(InvocationEvent.class);
+            recording.start();
+            LambdaUtilities.group(List.of(1, 2, 3, 4, 5), x -> x % 2);
+            recording.stop();
+            recording.dump(file);
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("it.unibo.oop.lab.lambda.Invocation"))
+                .collect(Collectors.toList());
+            assertEquals(1, events.size());
+            assertEquals("GROUP", events.get(0).getString("method"));
+            assertEquals(5, events.get(0).getInt("inputSize"));
+            assertEquals(2, events.get(0).getInt("buckets"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package it.unibo.oop.lab.lambda;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /*
  * CHECKSTYLE: MagicNumber OFF
@@ -34,6 +46,37 @@ final class TestLambdaUtilities {
         );
     }
 
+    /**
+     * Test the sink and buffer variants of dup, with several operators.
+     */
+    @Test
+    void testDupSink() {
+        final List<UnaryOperator<Integer>> ops = List.of(x -> x + 100, x -> -x);
+        final List<Integer> expected = List.of(1, 101, -1, 2, 102, -2, 3, 103, -3);
+        final List<Integer> sink = new ArrayList<>();
+        LambdaUtilities.dup(List.of(1, 2, 3), ops, sink::add);
+        assertEquals(expected, sink);
+        sink.clear();
+        LambdaUtilities.dup(new LinkedList<>(List.of(1, 2, 3)), ops, sink::add);
+        assertEquals(expected, sink);
+        final List<Integer> buffer = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            buffer.clear();
+            LambdaUtilities.dupInto(List.of(1, 2, 3), ops, buffer);
+            assertEquals(expected, buffer);
+        }
+        buffer.clear();
+        LambdaUtilities.dupInto(List.of(1, 2), List.of(), buffer);
+        assertEquals(List.of(1, 2), buffer);
+        assertEquals(LambdaUtilities.dup(List.of(1, 2), x -> x + 1), dupInto(List.of(1, 2), x -> x + 1));
+    }
+
+    private static <T> List<T> dupInto(final List<T> list, final UnaryOperator<T> op) {
+        final List<T> buffer = new LinkedList<>();
+        LambdaUtilities.dupInto(list, List.of(op), buffer);
+        return buffer;
+    }
+
     /**
      * Test optFilter method.
      */
@@ -49,6 +92,59 @@ final class TestLambdaUtilities {
         );
     }
 
+    /**
+     * Test that the views of dup and optFilter give the same results, and only
+     * compute the accessed elements.
+     */
+    @Test
+    void testViews() {
+        final List<Integer> list = List.of(1, 2, 3, 4, 5, 6);
+        final var calls = new AtomicInteger();
+        final var dup = LambdaUtilities.dupView(list, x -> {
+            calls.incrementAndGet();
+            return x + 100;
+        }, true);
+        assertEquals(LambdaUtilities.dup(list, x -> x + 100), dup);
+        assertEquals(6, calls.get());
+        assertEquals(103, dup.get(5));
+        assertEquals(6, calls.get());
+        assertThrows(UnsupportedOperationException.class, () -> dup.add(0));
+        calls.set(0);
+        final var opt = LambdaUtilities.optFilterView(list, x -> calls.incrementAndGet() > 0 && x % 2 == 0);
+        assertEquals(Optional.of(4), opt.get(3));
+        assertEquals(Optional.empty(), opt.get(4));
+        assertEquals(2, calls.get());
+        assertEquals(LambdaUtilities.optFilter(list, x -> x % 2 == 0), opt);
+        assertEquals(
+            LambdaUtilities.optFilter(list, x -> x > 3),
+            LambdaUtilities.optFilterView(list, x -> x > 3, true)
+        );
+    }
+
+    /**
+     * Test that the views check their indexes, and follow a growing source,
+     * also when memoizing.
+     */
+    @Test
+    void testViewsOfGrowingSource() {
+        final List<Integer> list = new ArrayList<>(List.of(1, 2, 3));
+        for (final boolean memoize : new boolean[] {false, true}) {
+            final List<Integer> dup = LambdaUtilities.dupView(list, x -> x + 100, memoize);
+            final List<Optional<Integer>> opt = LambdaUtilities.optFilterView(list, x -> x % 2 == 0, memoize);
+            assertThrows(IndexOutOfBoundsException.class, () -> dup.get(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> dup.get(list.size() * 2));
+            assertThrows(IndexOutOfBoundsException.class, () -> opt.get(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> opt.get(list.size()));
+            assertEquals(103, dup.get(5));
+            assertEquals(Optional.empty(), opt.get(2));
+            IntStream.range(4, 200).forEach(list::add);
+            assertEquals(LambdaUtilities.dup(list, x -> x + 100), dup);
+            assertEquals(LambdaUtilities.optFilter(list, x -> x % 2 == 0), opt);
+            assertEquals(299, dup.get(397));
+            list.subList(3, list.size()).clear();
+        }
+    }
+
     /**
      * Test group method.
      */
@@ -71,6 +167,41 @@ final class TestLambdaUtilities {
         );
     }
 
+    /**
+     * Test that group keeps the encounter order of keys and elements, freezes
+     * the buckets, and handles very large buckets.
+     */
+    @Test
+    void testGroupOrderAndLargeBuckets() {
+        final var groups = LambdaUtilities.group(List.of(5, 2, 3, 8, 5, 1, 4), x -> x % 2 == 0 ? "even" : "odd");
+        assertEquals(List.of("odd", "even"), List.copyOf(groups.keySet()));
+        assertEquals(List.of(5, 3, 1), List.copyOf(groups.get("odd")));
+        assertEquals(List.of(2, 8, 4), List.copyOf(groups.get("even")));
+        assertThrows(UnsupportedOperationException.class, () -> groups.get("odd").add(7));
+        final List<Integer> large = IntStream.range(0, 1_000_000).boxed().collect(Collectors.toList());
+        final var single = LambdaUtilities.group(large, x -> 0);
+        assertEquals(large, List.copyOf(single.get(0)));
+    }
+
+    /**
+     * Test the aggregating variants of group.
+     */
+    @Test
+    void testGroupAggregates() {
+        final List<String> list = List.of("abc", "qwe", "zx", "o", "cv", "abc");
+        assertEquals(Map.of(3, "abc", 2, "zx", 1, "o"), LambdaUtilities.groupReduce(list, String::length, (a, b) -> a));
+        assertEquals(Map.of(3, "qwe", 2, "zx", 1, "o"),
+                LambdaUtilities.groupReduce(list, String::length, BinaryOperator.maxBy(Comparator.naturalOrder())));
+        final var counts = LambdaUtilities.groupCount(list, String::length);
+        assertEquals(Map.of(3, 3L, 2, 2L, 1, 1L), counts);
+        assertEquals(List.of(3, 2, 1), List.copyOf(counts.keySet()));
+        assertEquals(Map.of('a', 6L, 'q', 3L, 'z', 2L, 'o', 1L, 'c', 2L),
+                LambdaUtilities.groupSum(list, s -> s.charAt(0), String::length));
+        assertEquals(Map.of(3, "abcqweabc", 2, "zxcv", 1, "o"),
+                LambdaUtilities.groupAggregate(list, String::length, StringBuilder::new, StringBuilder::append)
+                        .entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString())));
+    }
+
     /**
      * Test fill method.
      */
@@ -94,4 +225,33 @@ final class TestLambdaUtilities {
         assertTrue(map.get("n1") < 0);
         assertTrue(map.get("n2") < 0);
     }
+
+    /**
+     * Test that fill only calls the supplier for the non present values, and
+     * the in-place and bulk variants.
+     */
+    @Test
+    void testFillVariants() {
+        final var calls = new AtomicInteger();
+        final Map<String, Optional<Integer>> input = new LinkedHashMap<>();
+        input.put("p1", Optional.of(1));
+        input.put("n1", Optional.empty());
+        input.put("p2", Optional.of(2));
+        input.put("n2", Optional.empty());
+        final var filled = LambdaUtilities.fill(input, () -> -calls.incrementAndGet());
+        assertEquals(2, calls.get());
+        assertEquals(List.of(1, -1, 2, -2), List.copyOf(filled.values()));
+        final var bulk = LambdaUtilities.fillBulk(input, keys -> {
+            assertEquals(List.of("n1", "n2"), keys);
+            return List.of(-10, -20);
+        });
+        assertEquals(List.of(1, -10, 2, -20), List.copyOf(bulk.values()));
+        assertThrows(IllegalStateException.class, () -> LambdaUtilities.fillBulk(input, keys -> List.of()));
+        final var concurrent = new ConcurrentHashMap<>(input);
+        assertSame(concurrent, LambdaUtilities.fillInPlace(concurrent, () -> 0));
+        assertEquals(Optional.of(0), concurrent.get("n1"));
+        assertEquals(Optional.of(2), concurrent.get("p2"));
+        LambdaUtilities.fillInPlace(input, () -> 0);
+        assertEquals(List.of(1, 0, 2, 0), input.values().stream().map(Optional::get).collect(Collectors.toList()));
+    }
 }
@@ -0,0 +1,82 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import it.unibo.oop.lab.lambda.Memoizer.Eviction;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.Memoizer}.
+ */
+final class TestMemoizer {
+
+    /**
+     * Test that repeated elements are computed once, and that the results and
+     * statistics are shared across calls.
+     */
+    @Test
+    void testSharedAcrossCalls() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Memoizer<Integer, Integer> op = Memoizer.of(x -> {
+            calls.incrementAndGet();
+            return x % 3;
+        }, 100, Eviction.LRU);
+        final List<Integer> list = IntStream.range(0, 1000).map(i -> i % 10).boxed().collect(Collectors.toList());
+        assertEquals(LambdaUtilities.group(list, x -> x % 3), LambdaUtilities.group(list, op));
+        LambdaUtilities.group(list, op);
+        assertEquals(10, calls.get());
+        assertEquals(10, op.getMisses());
+        assertEquals(1990, op.getHits());
+        assertEquals(0, op.getEvictions());
+        assertEquals(10, op.size());
+        assertEquals(LambdaUtilities.optFilter(list, x -> x > 4),
+                LambdaUtilities.optFilter(list, x -> x > 4, 4, Eviction.LFU));
+        assertEquals(LambdaUtilities.group(list, x -> x % 3), LambdaUtilities.group(list, x -> x % 3, 4, Eviction.LRU));
+        assertThrows(IllegalArgumentException.class, () -> Memoizer.of(Function.identity(), 0, Eviction.LRU));
+    }
+
+    /**
+     * Test that LRU forgets the least recently used element, and LFU the least
+     * frequently used one.
+     */
+    @Test
+    void testEviction() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Function<Integer, Integer> counted = x -> {
+            calls.incrementAndGet();
+            return x;
+        };
+        final Memoizer<Integer, Integer> lru = Memoizer.of(counted, 2, Eviction.LRU);
+        List.of(1, 1, 1, 2, 3, 1).forEach(lru::apply);
+        /*
+         * 3 evicts 1, the least recently used, which is then recomputed.
+         */
+        assertEquals(4, calls.get());
+        assertEquals(2, lru.getEvictions());
+        assertEquals(2, lru.size());
+        calls.set(0);
+        final Memoizer<Integer, Integer> lfu = Memoizer.of(counted, 2, Eviction.LFU);
+        List.of(1, 1, 1, 2, 3, 1).forEach(lfu::apply);
+        /*
+         * 3 evicts 2, the least frequently used, and 1 is still cached.
+         */
+        assertEquals(3, calls.get());
+        assertEquals(1, lfu.getEvictions());
+        assertEquals(3, lfu.getHits());
+        final Memoizer<String, Boolean> empty = Memoizer.ofPredicate(String::isEmpty, 1, Eviction.LFU);
+        assertEquals(List.of(true, false, false), List.of("", "a", "a").stream()
+                .map(empty.asPredicate()::test).collect(Collectors.toList()));
+        assertEquals(1, empty.getHits());
+    }
+}
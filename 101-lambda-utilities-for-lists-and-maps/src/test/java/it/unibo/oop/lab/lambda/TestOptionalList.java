@@ -0,0 +1,84 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.OptionalList}.
+ */
+final class TestOptionalList {
+
+    /**
+     * Test access by index.
+     */
+    @Test
+    void testAccess() {
+        final var opt = LambdaUtilities.optFilterCompact(List.of("a", "bcd", "qw", "e", ""), x -> x.length() > 1);
+        assertEquals(5, opt.size());
+        assertEquals(2, opt.presentCount());
+        assertTrue(opt.isPresent(1));
+        assertEquals("qw", opt.get(2));
+        assertFalse(opt.isPresent(4));
+        assertThrows(NoSuchElementException.class, () -> opt.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> opt.isPresent(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> opt.isPresent(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> opt.asOptionals().get(-1));
+    }
+
+    /**
+     * Test that the result covers the elements the source had when it was
+     * created.
+     */
+    @Test
+    void testGrowingSource() {
+        final List<String> list = new ArrayList<>(List.of("a", "bcd"));
+        final var opt = LambdaUtilities.optFilterCompact(list, x -> x.length() > 1);
+        IntStream.range(0, 100).forEach(i -> list.add("added"));
+        assertEquals(2, opt.size());
+        assertEquals(2, opt.asOptionals().size());
+        assertThrows(IndexOutOfBoundsException.class, () -> opt.isPresent(2));
+        final List<String> present = new ArrayList<>();
+        opt.forEach(present::add);
+        assertEquals(List.of("bcd"), present);
+    }
+
+    /**
+     * Test iteration over present elements, across several bitmap words.
+     */
+    @Test
+    void testIteration() {
+        final List<Integer> list = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        final var opt = LambdaUtilities.optFilterCompact(new LinkedList<>(list), x -> x % 97 == 0);
+        final List<Integer> present = new ArrayList<>();
+        opt.forEach(present::add);
+        assertEquals(list.stream().filter(x -> x % 97 == 0).collect(Collectors.toList()), present);
+        assertEquals(present.size(), opt.presentCount());
+        assertFalse(LambdaUtilities.optFilterCompact(list, x -> false).iterator().hasNext());
+    }
+
+    /**
+     * Test the adapter to the format of optFilter.
+     */
+    @Test
+    void testAsOptionals() {
+        final List<Integer> list = List.of(1, 2, 3, 4, 5, 6);
+        assertEquals(
+            LambdaUtilities.optFilter(list, x -> x % 2 == 0),
+            LambdaUtilities.optFilterCompact(list, x -> x % 2 == 0).asOptionals()
+        );
+    }
+}
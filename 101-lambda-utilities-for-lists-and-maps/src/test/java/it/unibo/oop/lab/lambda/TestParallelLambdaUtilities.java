@@ -0,0 +1,74 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Checks that {@link it.unibo.oop.lab.lambda.ParallelLambdaUtilities} gives
+ * the same results, in the same order, of the sequential versions.
+ */
+final class TestParallelLambdaUtilities {
+
+    private static final int SIZE = 100_000;
+
+    private final List<Integer> list = IntStream.range(0, SIZE).map(i -> (i * 7919) % SIZE).boxed()
+        .collect(Collectors.toList());
+
+    /**
+     * Test parallel dup.
+     */
+    @Test
+    void testDup() {
+        assertEquals(LambdaUtilities.dup(list, x -> x + 1), ParallelLambdaUtilities.dup(list, x -> x + 1, 1));
+        assertEquals(
+            LambdaUtilities.dup(list, x -> x * 2),
+            ParallelLambdaUtilities.dup(new LinkedList<>(list), x -> x * 2, 1)
+        );
+    }
+
+    /**
+     * Test parallel optFilter.
+     */
+    @Test
+    void testOptFilter() {
+        assertEquals(
+            LambdaUtilities.optFilter(list, x -> x % 3 == 0),
+            ParallelLambdaUtilities.optFilter(list, x -> x % 3 == 0, 1)
+        );
+    }
+
+    /**
+     * Test that parallel group keeps the order of keys and elements.
+     */
+    @Test
+    void testGroup() {
+        final var expected = LambdaUtilities.group(list, x -> x % 10);
+        final var actual = ParallelLambdaUtilities.group(list, x -> x % 10, 1);
+        assertEquals(List.copyOf(expected.keySet()), List.copyOf(actual.keySet()));
+        expected.forEach((k, v) -> assertEquals(List.copyOf(v), List.copyOf(actual.get(k))));
+    }
+
+    /**
+     * Test parallel fill.
+     */
+    @Test
+    void testFill() {
+        final Map<Integer, Optional<Integer>> map = new LinkedHashMap<>();
+        list.forEach(i -> map.put(i, i % 2 == 0 ? Optional.of(i) : Optional.empty()));
+        final var filled = ParallelLambdaUtilities.fill(map, () -> -1, 1);
+        assertEquals(List.copyOf(map.keySet()), List.copyOf(filled.keySet()));
+        assertEquals(LambdaUtilities.fill(map, () -> -1), filled);
+    }
+}
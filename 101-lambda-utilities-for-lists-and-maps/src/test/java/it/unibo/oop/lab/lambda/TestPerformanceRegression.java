@@ -0,0 +1,247 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Regression test for the complexity of {@link it.unibo.oop.lab.lambda.LambdaUtilities}.
+ *
+ * Bounds are deliberately loose, so that only changes in complexity, e.g. a
+ * linear operation becoming quadratic, make them fail: scaling is checked by
+ * growing the input {@value #GROWTH} times, and allocations per element are
+ * compared to a few times the expected layout.
+ */
+final class TestPerformanceRegression {
+
+    private static final String PERFORMANCE = "performance";
+    private static final int SMALL = 25_000;
+    private static final int GROWTH = 8;
+    /*
+     * Larger inputs do not fit in the caches, so that even a linear operation
+     * takes more than GROWTH times longer on them: time is compared with the
+     * one of a linear reference, hashing the same elements. A linear
+     * operation should grow about as much, a quadratic one GROWTH times more.
+     */
+    private static final double MAX_SLOWDOWN = GROWTH / 2.0;
+    /*
+     * Allocations, unlike time, do not depend on the machine: a linear
+     * operation allocates about as much per element on any input, a
+     * quadratic one GROWTH times more on the larger input.
+     */
+    private static final double MAX_ALLOCATION_GROWTH = 2;
+    private static final int RUNS = 5;
+
+    private static List<Integer> randomList(final int size) {
+        final Random random = new Random(size);
+        return IntStream.range(0, size).map(i -> random.nextInt(size)).boxed().collect(Collectors.toList());
+    }
+
+    /*
+     * The best of several runs, which filters out most of the noise of
+     * garbage collection and compilation.
+     */
+    private static long bestNanos(final Supplier<?> task) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            final long start = System.nanoTime();
+            task.get();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * A check of how an operation scales.
+     */
+    private interface Scaling {
+
+        /**
+         * @param name      the name of the operation
+         * @param fixture   builds the input of the operation from a random list
+         * @param operation the operation to check
+         * @param <I>       input type
+         */
+        <I> void check(String name, Function<List<Integer>, I> fixture, Function<I, ?> operation);
+    }
+
+    /*
+     * Every operation, also group with a single huge bucket.
+     */
+    private static void checkAll(final Scaling scaling) {
+        final UnaryOperator<Integer> op = x -> x + 1;
+        final Function<List<Integer>, List<Integer>> list = Function.identity();
+        scaling.check("dup", list, l -> LambdaUtilities.dup(l, op));
+        scaling.check("optFilter", list, l -> LambdaUtilities.optFilter(l, x -> x % 2 == 0));
+        scaling.check("group with one key", list, l -> LambdaUtilities.group(l, x -> 0));
+        scaling.check("group with many keys", list, l -> LambdaUtilities.group(l, x -> x % 1000));
+        scaling.check("fill", TestPerformanceRegression::optionals, m -> LambdaUtilities.fill(m, () -> -1));
+        scaling.check("union", l -> List.of(Set.copyOf(l), new LinkedHashSet<>(l)),
+                s -> LambdaUtilities.union(s.get(0), s.get(1)));
+        scaling.check("groupCount", list, l -> LambdaUtilities.groupCount(l, x -> x % 1000));
+    }
+
+    /*
+     * The inputs of the operation are built from the random lists before
+     * timing it, so that only the operation is measured.
+     */
+    private static <I> void assertLinear(final String name, final Function<List<Integer>, I> fixture,
+            final Function<I, ?> operation) {
+        final List<Integer> small = randomList(SMALL);
+        final List<Integer> large = randomList(SMALL * GROWTH);
+        final double reference = growth(small, large, HashSet::new);
+        final double ratio = growth(fixture.apply(small), fixture.apply(large), operation);
+        assertTrue(ratio < reference * MAX_SLOWDOWN, name + " grew " + ratio + " times on a " + GROWTH
+                + " times larger input, hashing it grew " + reference + " times");
+    }
+
+    private static <I> double growth(final I small, final I large, final Function<I, ?> operation) {
+        bestNanos(() -> operation.apply(large));
+        return (double) bestNanos(() -> operation.apply(large)) / bestNanos(() -> operation.apply(small));
+    }
+
+    /*
+     * Bytes allocated by the current thread per element of the input.
+     */
+    private static double bytesPerElement(final List<Integer> input, final Runnable task) {
+        final var threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        final var mx = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(mx.isThreadAllocatedMemorySupported() && mx.isThreadAllocatedMemoryEnabled());
+        task.run();
+        final long id = Thread.currentThread().getId();
+        final long before = mx.getThreadAllocatedBytes(id);
+        task.run();
+        return (double) (mx.getThreadAllocatedBytes(id) - before) / input.size();
+    }
+
+    private static <I> void assertAllocatesLinearly(final String name, final Function<List<Integer>, I> fixture,
+            final Function<I, ?> operation) {
+        final List<Integer> small = randomList(SMALL);
+        final List<Integer> large = randomList(SMALL * GROWTH);
+        final I smallInput = fixture.apply(small);
+        final I largeInput = fixture.apply(large);
+        final double smallBytes = bytesPerElement(small, () -> operation.apply(smallInput));
+        final double largeBytes = bytesPerElement(large, () -> operation.apply(largeInput));
+        assertTrue(largeBytes <= Math.max(smallBytes, 1) * MAX_ALLOCATION_GROWTH, name + " allocated " + largeBytes
+                + " bytes per element on a " + GROWTH + " times larger input, instead of " + smallBytes);
+    }
+
+    private static void assertAllocates(final String name, final double maxBytes, final List<Integer> input,
+            final Runnable task) {
+        final double bytes = bytesPerElement(input, task);
+        assertTrue(bytes <= maxBytes, name + " allocated " + bytes + " bytes per element, more than " + maxBytes);
+    }
+
+    private static Map<Integer, Optional<Integer>> optionals(final List<Integer> list) {
+        final Map<Integer, Optional<Integer>> map = new LinkedHashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            map.put(i, Optional.of(list.get(i)).filter(x -> x % 2 == 0));
+        }
+        return map;
+    }
+
+    /**
+     * Test that the time of every operation grows linearly. Being based on
+     * wall-clock time, this test is tagged {@value #PERFORMANCE}, and run by
+     * the performanceTest task, on its own, as part of check.
+     */
+    @Test
+    @Tag(PERFORMANCE)
+    void testLinearScaling() {
+        checkAll(TestPerformanceRegression::assertLinear);
+    }
+
+    /**
+     * Test that the allocations of every operation grow linearly, which does
+     * not depend on the load of the machine.
+     */
+    @Test
+    void testLinearAllocation() {
+        checkAll(TestPerformanceRegression::assertAllocatesLinearly);
+    }
+
+    /**
+     * Test that operations do not allocate more than a few times the size of
+     * their results.
+     */
+    @Test
+    void testAllocationPerElement() {
+        final List<Integer> list = randomList(SMALL * GROWTH);
+        final UnaryOperator<Integer> identity = x -> x;
+        /*
+         * One or two references, plus growth of the result, per element.
+         */
+        assertAllocates("dup", 24, list, () -> LambdaUtilities.dup(list, identity));
+        /*
+         * A reference and an Optional per element.
+         */
+        assertAllocates("optFilter", 48, list, () -> LambdaUtilities.optFilter(list, x -> x % 2 == 0));
+        /*
+         * A key reference, a counted key, and an entry in a bucket.
+         */
+        assertAllocates("group", 160, list, () -> LambdaUtilities.group(list, x -> x % 1000));
+        /*
+         * Only the entries of the map.
+         */
+        final Map<Integer, Optional<Integer>> optionals = optionals(list);
+        assertAllocates("fill", 96, list, () -> LambdaUtilities.fill(optionals, () -> -1));
+        /*
+         * Nothing in steady state.
+         */
+        final List<Integer> buffer = new ArrayList<>();
+        final List<UnaryOperator<Integer>> ops = List.of(identity, identity);
+        assertAllocates("dupInto", 0.01, list, () -> {
+            buffer.clear();
+            LambdaUtilities.dupInto(list, ops, buffer);
+        });
+        assertAllocates("groupCount", 0.5, list, () -> LambdaUtilities.groupCount(list, x -> x % 10));
+    }
+
+    /**
+     * Test the results against stream-based reference implementations.
+     */
+    @Test
+    void testAgainstStreams() {
+        final List<Integer> list = randomList(SMALL);
+        final UnaryOperator<Integer> op = x -> x * 3;
+        assertEquals(list.stream().flatMap(t -> Stream.of(t, op.apply(t))).collect(Collectors.toList()),
+                LambdaUtilities.dup(list, op));
+        assertEquals(list.stream().map(t -> Optional.of(t).filter(x -> x % 3 == 0)).collect(Collectors.toList()),
+                LambdaUtilities.optFilter(list, x -> x % 3 == 0));
+        assertEquals(list.stream().collect(Collectors.groupingBy(x -> x % 97, Collectors.toSet())),
+                LambdaUtilities.group(list, x -> x % 97));
+        assertEquals(list.stream().collect(Collectors.groupingBy(x -> x % 97, Collectors.counting())),
+                LambdaUtilities.groupCount(list, x -> x % 97));
+        final Map<Integer, Optional<Integer>> optionals = optionals(list);
+        assertEquals(optionals.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().orElse(-1))),
+                LambdaUtilities.fill(optionals, () -> -1));
+        final Set<Integer> other = Set.copyOf(randomList(SMALL / 2));
+        assertEquals(Stream.concat(list.stream(), other.stream()).collect(Collectors.toSet()),
+                LambdaUtilities.union(Set.copyOf(list), other));
+    }
+}
@@ -0,0 +1,127 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.PersistentHashMap} and
+ * {@link it.unibo.oop.lab.lambda.PersistentHashSet}.
+ */
+final class TestPersistentCollections {
+
+    /**
+     * A key with few distinct hash codes, to exercise collisions.
+     */
+    private static final class Colliding {
+
+        private final int value;
+
+        Colliding(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof Colliding && ((Colliding) obj).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value % 3;
+        }
+    }
+
+    /**
+     * Test random updates against a {@link HashMap}, and that old versions do
+     * not change.
+     */
+    @Test
+    void testAgainstHashMap() {
+        final Random random = new Random(11);
+        final Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 20_000; i++) {
+            final int key = random.nextInt(5000) - 2500;
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.minus(key);
+            } else {
+                expected.put(key, i);
+                map = map.plus(key, i);
+            }
+        }
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.hashCode(), map.hashCode());
+        final PersistentHashMap<Integer, Integer> old = map;
+        final Map<Integer, Integer> oldCopy = new HashMap<>(old);
+        for (final Integer key : oldCopy.keySet()) {
+            map = map.minus(key);
+        }
+        assertTrue(map.isEmpty());
+        assertEquals(oldCopy, old);
+        assertSame(old, old.minus(1_000_000));
+        assertThrows(UnsupportedOperationException.class, () -> old.put(1, 1));
+        assertThrows(NullPointerException.class, () -> old.plus(null, 1));
+    }
+
+    /**
+     * Test keys with equal hash codes.
+     */
+    @Test
+    void testCollisions() {
+        PersistentHashSet<Colliding> set = PersistentHashSet.empty();
+        for (int i = 0; i < 30; i++) {
+            set = set.plus(new Colliding(i));
+        }
+        assertEquals(30, set.size());
+        assertTrue(set.contains(new Colliding(29)));
+        for (int i = 0; i < 30; i += 2) {
+            set = set.minus(new Colliding(i));
+        }
+        assertEquals(15, set.size());
+        assertFalse(set.contains(new Colliding(4)));
+        assertTrue(set.contains(new Colliding(5)));
+        final PersistentHashMap<Colliding, String> map = PersistentHashMap.<Colliding, String>empty()
+                .plus(new Colliding(1), "a").plus(new Colliding(4), null);
+        assertTrue(map.containsKey(new Colliding(4)));
+        assertNull(map.get(new Colliding(4)));
+        assertFalse(map.containsKey(new Colliding(7)));
+    }
+
+    /**
+     * Test the persistent variants of group and union.
+     */
+    @Test
+    void testGroupAndUnion() {
+        final List<Integer> list = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        final var groups = LambdaUtilities.groupPersistent(list, x -> x % 10);
+        assertEquals(LambdaUtilities.group(list, x -> x % 10), groups);
+        final var next = LambdaUtilities.groupPersistent(groups, List.of(1000, 1010), x -> x % 10);
+        assertEquals(102, next.get(0).size());
+        assertEquals(100, groups.get(0).size());
+        assertSame(groups.get(3), next.get(3));
+        final PersistentHashSet<Integer> set = PersistentHashSet.copyOf(list);
+        final PersistentHashSet<Integer> union = LambdaUtilities.unionPersistent(set, Set.of(-1, 0, 2000));
+        assertEquals(1002, union.size());
+        assertEquals(1000, set.size());
+        assertEquals(union, LambdaUtilities.unionPersistent(PersistentHashSet.copyOf(Set.of(-1, 2000)), set));
+    }
+}
@@ -0,0 +1,111 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Simple test for {@link it.unibo.oop.lab.lambda.PrimitiveLambdaUtilities}.
+ */
+final class TestPrimitiveLambdaUtilities {
+
+    /**
+     * Test primitive dup methods.
+     */
+    @Test
+    void testDup() {
+        assertArrayEquals(
+            new int[] {1, 101, 2, 102, 3, 103},
+            PrimitiveLambdaUtilities.dup(new int[] {1, 2, 3}, x -> x + 100)
+        );
+        assertArrayEquals(new long[] {1, 2, 5, 10}, PrimitiveLambdaUtilities.dup(new long[] {1, 5}, x -> x * 2));
+        assertArrayEquals(new double[] {1, -1}, PrimitiveLambdaUtilities.dup(new double[] {1}, x -> -x));
+    }
+
+    /**
+     * Test primitive optFilter methods.
+     */
+    @Test
+    void testOptFilter() {
+        final var ints = PrimitiveLambdaUtilities.optFilter(IntStream.range(0, 200).toArray(), x -> x % 3 == 0);
+        assertEquals(200, ints.size());
+        assertEquals(67, ints.presentCount());
+        assertTrue(ints.isPresent(99));
+        assertEquals(99, ints.getAsInt(99));
+        assertFalse(ints.isPresent(100));
+        assertThrows(NoSuchElementException.class, () -> ints.getAsInt(100));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.isPresent(200));
+        final var longs = PrimitiveLambdaUtilities.optFilter(new long[] {1, 2}, x -> x > 1);
+        assertEquals(2, longs.getAsLong(1));
+        assertEquals(1, longs.presentCount());
+        final var doubles = PrimitiveLambdaUtilities.optFilter(new double[] {0.5, 1.5}, x -> x < 1);
+        assertEquals(0.5, doubles.getAsDouble(0));
+        assertFalse(doubles.isPresent(1));
+    }
+
+    /**
+     * Test primitive group method.
+     */
+    @Test
+    void testGroup() {
+        final var groups = PrimitiveLambdaUtilities.group(new int[] {5, 2, 3, 8, 5, 1, 4}, x -> x % 2);
+        assertEquals(2, groups.size());
+        assertArrayEquals(new int[] {1, 0}, groups.keys());
+        assertArrayEquals(new int[] {5, 3, 1}, groups.get(1));
+        assertArrayEquals(new int[] {2, 8, 4}, groups.get(0));
+        assertFalse(groups.containsKey(2));
+        assertThrows(NoSuchElementException.class, () -> groups.get(2));
+        final var many = PrimitiveLambdaUtilities.group(IntStream.range(0, 100_000).toArray(), x -> x % 1000);
+        assertEquals(1000, many.size());
+        assertArrayEquals(IntStream.range(0, 100).map(i -> i * 1000 + 7).toArray(), many.get(7));
+    }
+
+    /**
+     * Test primitive group method on longs, with keys beyond the int range.
+     */
+    @Test
+    void testGroupLong() {
+        final long big = 1L << 40;
+        final var groups = PrimitiveLambdaUtilities.group(new long[] {5, big + 2, 3, big, 5, 1}, x -> x / big * big);
+        assertEquals(2, groups.size());
+        assertArrayEquals(new long[] {0, big}, groups.keys());
+        assertArrayEquals(new long[] {5, 3, 1}, groups.get(0));
+        assertArrayEquals(new long[] {big + 2, big}, groups.get(big));
+        assertFalse(groups.containsKey(1));
+        assertThrows(NoSuchElementException.class, () -> groups.get(1));
+        final var many = PrimitiveLambdaUtilities.group(LongStream.range(0, 100_000).toArray(), x -> x % 1000 * big);
+        assertEquals(1000, many.size());
+        assertArrayEquals(LongStream.range(0, 100).map(i -> i * 1000 + 7).toArray(), many.get(7 * big));
+    }
+
+    /**
+     * Test primitive group method on doubles, whose keys and values compare as
+     * boxed doubles do.
+     */
+    @Test
+    void testGroupDouble() {
+        final var groups = PrimitiveLambdaUtilities.group(new double[] {1.5, -2.5, 0.5, 1.5, Double.NaN, -0.0, 0.0},
+                Math::signum);
+        assertEquals(5, groups.size());
+        assertArrayEquals(new double[] {1, -1, Double.NaN, -0.0, 0.0}, groups.keys());
+        assertArrayEquals(new double[] {1.5, 0.5}, groups.get(1));
+        assertArrayEquals(new double[] {-2.5}, groups.get(-1));
+        assertArrayEquals(new double[] {Double.NaN}, groups.get(Double.NaN));
+        assertArrayEquals(new double[] {-0.0}, groups.get(-0.0));
+        assertArrayEquals(new double[] {0.0}, groups.get(0.0));
+        assertTrue(groups.containsKey(0.0 / 0.0));
+        assertFalse(groups.containsKey(2));
+        assertThrows(NoSuchElementException.class, () -> groups.get(2));
+    }
+}
@@ -0,0 +1,108 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Test for {@link it.unibo.oop.lab.lambda.LambdaUtilities#unionAll}, covering
+ * each representation of the result.
+ */
+final class TestUnions {
+
+    /**
+     * Test the general case.
+     */
+    @Test
+    void testGeneral() {
+        final Set<String> union = LambdaUtilities.unionAll(List.of(Set.of("a", "b"), Set.of("b", "c"), Set.of("d")));
+        assertEquals(Set.of("a", "b", "c", "d"), union);
+        assertThrows(UnsupportedOperationException.class, () -> union.add("e"));
+        assertEquals(Set.of(), LambdaUtilities.unionAll(List.<Set<String>>of()));
+        assertEquals(Set.of(1, 2, 3), LambdaUtilities.union(Set.of(1, 2), Set.of(2, 3)));
+    }
+
+    /**
+     * Test that a set containing all the others is not copied: returned as it
+     * is if it cannot change, through a read-only view otherwise.
+     */
+    @Test
+    void testContainment() {
+        final Set<String> immutable = Set.of("a", "b", "c");
+        assertSame(immutable, LambdaUtilities.unionAll(List.of(Set.of("b"), immutable, Set.of("a", "c"))));
+        final PersistentHashSet<String> persistent = PersistentHashSet.<String>empty().plusAll(immutable);
+        assertSame(persistent, LambdaUtilities.unionAll(List.of(persistent, new LinkedHashSet<>(List.of("a")))));
+        final Set<String> large = new LinkedHashSet<>(List.of("a", "b", "c"));
+        final Set<String> union = LambdaUtilities.unionAll(List.of(Set.of("b"), large, Set.of("a", "c")));
+        assertEquals(large, union);
+        assertThrows(UnsupportedOperationException.class, () -> union.add("z"));
+        large.add("z");
+        assertTrue(union.contains("z"));
+        final Set<Integer> dense = LambdaUtilities.unionAll(List.of(Set.of(1, 3), Set.of(2)));
+        assertSame(dense, LambdaUtilities.unionAll(List.of(Set.of(1), dense)));
+    }
+
+    /**
+     * Test dense integers.
+     */
+    @Test
+    void testDenseIntegers() {
+        final Set<Integer> union = LambdaUtilities.unionAll(List.of(Set.of(5, 1, 3), Set.of(0, 2), Set.of(4, 3)));
+        assertEquals(Set.of(0, 1, 2, 3, 4, 5), union);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), List.copyOf(union));
+        assertFalse(union.contains(-1));
+        assertFalse(union.contains("1"));
+        assertEquals(Set.of(-1, 2, 3), LambdaUtilities.unionAll(List.of(Set.of(-1, 2), Set.of(3))));
+        assertEquals(List.of(-3, -2, -1), List.copyOf(LambdaUtilities.unionAll(List.of(Set.of(-1, -3), Set.of(-2)))));
+        final Set<Integer> top = LambdaUtilities.unionAll(List.of(Set.of(Integer.MAX_VALUE), Set.of(Integer.MAX_VALUE - 1)));
+        assertEquals(List.of(Integer.MAX_VALUE - 1, Integer.MAX_VALUE), List.copyOf(top));
+        assertTrue(top.contains(Integer.MAX_VALUE));
+        assertFalse(top.contains(Integer.MIN_VALUE));
+        assertEquals(Set.of(Integer.MIN_VALUE, Integer.MAX_VALUE),
+                LambdaUtilities.unionAll(List.of(Set.of(Integer.MIN_VALUE), Set.of(Integer.MAX_VALUE))));
+        final Set<Integer> bottom = LambdaUtilities.unionAll(List.of(Set.of(Integer.MIN_VALUE + 1), Set.of(Integer.MIN_VALUE)));
+        assertEquals(List.of(Integer.MIN_VALUE, Integer.MIN_VALUE + 1), List.copyOf(bottom));
+        /*
+         * Too sparse for a bitset, in both directions from the first element.
+         */
+        final Set<Integer> sparse = LambdaUtilities.unionAll(List.of(new LinkedHashSet<>(List.of(0, 1000)), Set.of(-1000)));
+        assertEquals(Set.of(-1000, 0, 1000), sparse);
+        assertThrows(UnsupportedOperationException.class, () -> sparse.add(1));
+    }
+
+    /**
+     * Test the merge of sorted sets.
+     */
+    @Test
+    void testSorted() {
+        final Comparator<String> reverse = Comparator.reverseOrder();
+        final var s1 = new TreeSet<>(reverse);
+        s1.addAll(List.of("a", "c", "e"));
+        final var s2 = new TreeSet<>(reverse);
+        s2.addAll(List.of("b", "c", "d"));
+        assertEquals(List.of("e", "d", "c", "b", "a"), List.copyOf(LambdaUtilities.unionAll(List.of(s1, s2))));
+        final var n1 = new TreeSet<>(List.of("x", "z"));
+        final var n2 = new TreeSet<>(List.of("y"));
+        final Set<String> natural = LambdaUtilities.unionAll(List.of(n1, n2, new TreeSet<>(List.of("x", "y"))));
+        assertEquals(List.of("x", "y", "z"), List.copyOf(natural));
+        assertEquals(Set.of("x", "y", "z"), natural);
+        assertTrue(natural.contains("y"));
+        assertFalse(natural.contains("w"));
+        assertThrows(UnsupportedOperationException.class, () -> natural.add("w"));
+        n1.add("w");
+        assertFalse(natural.contains("w"));
+    }
+}
@@ -0,0 +1,78 @@
+package it.unibo.oop.lab.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Checks that {@link it.unibo.oop.lab.lambda.VectorKernels#get()} agrees with
+ * the scalar kernels, on lengths that are not multiples of any vector size.
+ */
+final class TestVectorKernels {
+
+    private static final int SIZE = 1003;
+
+    private final VectorKernels kernels = VectorKernels.get();
+    private final VectorKernels scalar = new ScalarKernels();
+    private final int[] ints = new Random(1).ints(SIZE, -1000, 1000).toArray();
+    private final long[] longs = new Random(2).longs(SIZE, -1000, 1000).toArray();
+
+    /**
+     * Test that the Vector API is used when its module is available, as
+     * configured in the build.
+     */
+    @Test
+    void testVectorized() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        assertTrue(kernels.isVectorized());
+    }
+
+    /**
+     * Test dup.
+     */
+    @Test
+    void testDup() {
+        for (final ArithmeticOp.Kind kind : ArithmeticOp.Kind.values()) {
+            final var op = ArithmeticOp.of(kind, 7);
+            assertArrayEquals(PrimitiveLambdaUtilities.dup(ints, x -> op.applyAsInt(x)), kernels.dup(ints, op));
+            assertArrayEquals(PrimitiveLambdaUtilities.dup(longs, x -> op.applyAsLong(x)), kernels.dup(longs, op));
+        }
+        assertArrayEquals(new int[] {1, 3, 2, 4}, kernels.dup(new int[] {1, 2}, ArithmeticOp.of(ArithmeticOp.Kind.ADD, 2)));
+    }
+
+    /**
+     * Test filter.
+     */
+    @Test
+    void testFilter() {
+        for (final Comparison.Kind kind : Comparison.Kind.values()) {
+            final var pre = Comparison.of(kind, 10);
+            assertArrayEquals(scalar.filter(ints, pre), kernels.filter(ints, pre));
+            assertArrayEquals(scalar.filter(longs, pre), kernels.filter(longs, pre));
+        }
+        assertArrayEquals(new int[] {5, 9}, kernels.filter(new int[] {1, 5, 2, 9}, Comparison.of(Comparison.Kind.GT, 2)));
+    }
+
+    /**
+     * Test grouping by residue.
+     */
+    @Test
+    void testByMod() {
+        assertArrayEquals(scalar.countByMod(ints, 7), kernels.countByMod(ints, 7));
+        final int[][] expected = scalar.groupByMod(ints, 10);
+        final int[][] actual = kernels.groupByMod(ints, 10);
+        for (int r = 0; r < 10; r++) {
+            assertArrayEquals(expected[r], actual[r]);
+        }
+        assertArrayEquals(new int[] {2, 1, 1}, scalar.countByMod(new int[] {-3, 0, 4, 5}, 3));
+        assertThrows(IllegalArgumentException.class, () -> kernels.countByMod(ints, 0));
+    }
+}
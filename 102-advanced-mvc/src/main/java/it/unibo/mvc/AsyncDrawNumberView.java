@@ -0,0 +1,306 @@
+package it.unibo.mvc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorates a view so that its outputs (results, incorrect numbers and errors)
+ * are delivered by a thread of its own, instead of the thread of the
+ * controller: a slow view, e.g. one waiting for a modal dialog to be closed,
+ * does not slow down the model or the other views.
+ *
+ * Events wait in a bounded queue, and are delivered in batches, in the order
+ * they were produced. When the queue is full, the {@link OverflowPolicy}
+ * decides what happens. Stopping the view lets it deliver the pending events
+ * first. The decorated view is called from the thread of this one: views
+ * bound to a thread of their own, like Swing ones, must hand the events over
+ * to it, and may wait for each one to be shown, so that the queue fills up
+ * while the view is behind.
+ */
+public final class AsyncDrawNumberView implements DrawNumberView {
+
+    private static final Event INCORRECT = new Event(null, null);
+    private static final Event[] RESULTS = new Event[DrawResult.values().length];
+
+    static {
+        for (final DrawResult result : DrawResult.values()) {
+            RESULTS[result.ordinal()] = new Event(result, null);
+        }
+    }
+
+    private final DrawNumberView view;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final Deque<Event> queue = new ArrayDeque<>();
+    private final Lock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Thread consumer = new Thread(this::deliver, "draw-number-view");
+    private boolean started;
+    private boolean stopped;
+    private long dropped;
+
+    /**
+     * What to do with a new event when the queue of a view is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Waits until the view consumes an event: no event is lost, but the
+         * controller waits for the view. Events caused by the view itself,
+         * from its own thread, are queued anyway.
+         */
+        BLOCK,
+        /**
+         * Discards the oldest queued event.
+         */
+        DROP_OLDEST,
+        /**
+         * Replaces the newest queued hint or incorrect number with the new
+         * event: the view skips the intermediate feedback, but always shows
+         * the latest one. Errors and the ends of games are never dropped: a
+         * new hint is discarded if none is queued, and a new error or end
+         * waits as with {@link #BLOCK}.
+         */
+        COALESCE
+    }
+
+    /**
+     * @param view     the view to decorate
+     * @param capacity the maximum number of pending events
+     * @param policy   what to do when the queue is full
+     */
+    public AsyncDrawNumberView(final DrawNumberView view, final int capacity, final OverflowPolicy policy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.view = Objects.requireNonNull(view);
+        this.capacity = capacity;
+        this.policy = Objects.requireNonNull(policy);
+        consumer.setDaemon(true);
+    }
+
+    @Override
+    public void setObserver(final DrawNumberViewObserver observer) {
+        view.setObserver(observer);
+    }
+
+    @Override
+    public void start() {
+        view.start();
+        lock.lock();
+        try {
+            if (!stopped) {
+                started = true;
+                consumer.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the view once the pending events have been delivered, and waits
+     * for it, unless called by the view itself.
+     */
+    @Override
+    public void stop() {
+        final boolean neverStarted;
+        lock.lock();
+        try {
+            neverStarted = !started && !stopped;
+            stopped = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (neverStarted) {
+            /*
+             * Never started: there is no consumer to stop the view.
+             */
+            view.stop();
+        } else if (!isConsumerThread()) {
+            try {
+                consumer.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void numberIncorrect() {
+        enqueue(INCORRECT);
+    }
+
+    @Override
+    public void result(final DrawResult res) {
+        enqueue(RESULTS[res.ordinal()]);
+    }
+
+    @Override
+    public void displayError(final String message) {
+        enqueue(new Event(null, message));
+    }
+
+    /**
+     * @return the number of events discarded because the queue was full
+     */
+    public long getDropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(final Event event) {
+        lock.lock();
+        try {
+            if (stopped) {
+                return;
+            }
+            if (queue.size() >= capacity) {
+                switch (policy) {
+                    case BLOCK:
+                        if (!awaitSpace()) {
+                            return;
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        queue.pollFirst();
+                        dropped++;
+                        break;
+                    case COALESCE:
+                        if (removeNewestTransient()) {
+                            dropped++;
+                        } else if (event.isTransient()) {
+                            dropped++;
+                            return;
+                        } else if (!awaitSpace()) {
+                            return;
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected policy: " + policy);
+                }
+            }
+            queue.addLast(event);
+            notEmpty.signal();
+        } catch (final InterruptedException e) {
+            dropped++;
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Waits for the queue to have room, with the lock held, and tells whether
+     * the event can still be queued. The view itself, calling back the
+     * controller while an event is delivered, would wait for itself.
+     */
+    private boolean awaitSpace() throws InterruptedException {
+        while (queue.size() >= capacity && !stopped && !isConsumerThread()) {
+            notFull.await();
+        }
+        return !stopped;
+    }
+
+    private boolean removeNewestTransient() {
+        final Iterator<Event> newestFirst = queue.descendingIterator();
+        while (newestFirst.hasNext()) {
+            if (newestFirst.next().isTransient()) {
+                newestFirst.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the current thread is the one delivering the events to
+     *         the decorated view, which must never wait for the view
+     */
+    boolean isConsumerThread() {
+        return Thread.currentThread() == consumer;
+    }
+
+    /*
+     * The loop of the consumer thread: takes all the pending events at once,
+     * and delivers them without holding the lock.
+     */
+    private void deliver() {
+        final List<Event> batch = new ArrayList<>(capacity);
+        while (true) {
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !stopped) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (queue.isEmpty()) {
+                    break;
+                }
+                batch.addAll(queue);
+                queue.clear();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            for (final Event event : batch) {
+                try {
+                    event.deliverTo(view);
+                } catch (final RuntimeException e) { // NOPMD
+                    /*
+                     * A failing event must not stop the delivery of the next
+                     * ones.
+                     */
+                    consumer.getUncaughtExceptionHandler().uncaughtException(consumer, e);
+                }
+            }
+            batch.clear();
+        }
+        view.stop();
+    }
+
+    /**
+     * An output for the view: a result, an error message, or neither, for an
+     * incorrect number.
+     */
+    private static final class Event {
+
+        private final DrawResult result;
+        private final String message;
+
+        Event(final DrawResult result, final String message) {
+            this.result = result;
+            this.message = message;
+        }
+
+        /*
+         * Hints and incorrect numbers only matter until the next attempt.
+         */
+        boolean isTransient() {
+            return message == null
+                    && (result == null || result == DrawResult.YOURS_HIGH || result == DrawResult.YOURS_LOW);
+        }
+
+        void deliverTo(final DrawNumberView view) {
+            if (result != null) {
+                view.result(result);
+            } else if (message != null) {
+                view.displayError(message);
+            } else {
+                view.numberIncorrect();
+            }
+        }
+    }
+}
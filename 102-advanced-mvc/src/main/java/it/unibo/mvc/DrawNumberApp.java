@@ -1,73 +1,185 @@
 package it.unibo.mvc;
 
-import java.io.FileNotFoundException;
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  */
 public final class DrawNumberApp implements DrawNumberViewObserver {
 
+    private static final int QUEUE_CAPACITY = 64;
+
     private final DrawNumber model;
-    private final List<DrawNumberView> views;
+    private final List<AsyncDrawNumberView> views;
+    /*
+     * The outputs for the views, in the order the model produced them, and
+     * the lock of the thread delivering them. The outbox holds as many
+     * outputs as a view: an attempt waits for room before it is played, as
+     * a controller thread must not wait while it holds the model.
+     */
+    private final Queue<Output> outbox = new ConcurrentLinkedQueue<>();
+    private final Semaphore outboxSpace;
+    private final Lock delivering = new ReentrantLock();
 
     /**
      * @param views
-     *              the views to attach
+     *              the views to attach, each one fed by its own thread, which
+     *              makes the controller wait when it is too far behind
      */
     public DrawNumberApp(final DrawNumberView... views) {
+        this(AsyncDrawNumberView.OverflowPolicy.BLOCK, QUEUE_CAPACITY, views);
+    }
+
+    /**
+     * @param policy
+     *              what to do when a view is too far behind
+     * @param capacity
+     *              the number of outputs that each view can be behind
+     * @param attached
+     *              the views to attach, each one fed by its own thread
+     */
+    public DrawNumberApp(final AsyncDrawNumberView.OverflowPolicy policy, final int capacity,
+            final DrawNumberView... attached) {
         /*
          * Side-effect proof
          */
-        this.views = Arrays.asList(Arrays.copyOf(views, views.length));
-        for (final DrawNumberView view : views) {
+        final AsyncDrawNumberView[] async = new AsyncDrawNumberView[attached.length];
+        for (int i = 0; i < attached.length; i++) {
+            async[i] = new AsyncDrawNumberView(attached[i], capacity, policy);
+        }
+        this.views = Arrays.asList(async);
+        this.outboxSpace = new Semaphore(capacity);
+        for (final DrawNumberView view : async) {
             view.setObserver(this);
             view.start();
         }
 
-        final Configuration configuration = new ConfigFromFile(views).getConfBuilder().build();
+        final Configuration configuration = new ConfigFromFile(async).getConfBuilder().build();
         if (!configuration.isConsistent()) {
             this.model = new DrawNumberImpl(new Configuration.Builder().build());
             displayErrorAll("Invalid configuration (min: " + configuration.getMin() + ", max: " + configuration.getMax()
-                    + ", attempts: " + configuration.getAttempts() + "). Default value have been set.", views);
+                    + ", attempts: " + configuration.getAttempts() + "). Default value have been set.", async);
         } else {
             this.model = new DrawNumberImpl(configuration);
         }
     }
 
+    /*
+     * Views may call from any thread. The model is only locked to play: a
+     * game that ends is reset at once, so that the next attempt, from any
+     * view, plays a new one. The outputs are delivered after the lock is
+     * released, as the views may make the caller wait. Views calling back
+     * while they are delivered to never wait, as their own queues do.
+     */
     @Override
     public void newAttempt(final int n) {
-        try {
-            final DrawResult result = model.attempt(n);
-            for (final DrawNumberView view : views) {
-                view.result(result);
+        final boolean reserved = !isConsumerThread();
+        if (reserved) {
+            outboxSpace.acquireUninterruptibly();
+        }
+        synchronized (model) {
+            try {
+                final DrawResult result = model.attempt(n);
+                if (result == DrawResult.YOU_WON || result == DrawResult.YOU_LOST) {
+                    model.reset();
+                }
+                outbox.add(new Output(view -> view.result(result), reserved));
+            } catch (IllegalArgumentException e) {
+                outbox.add(new Output(DrawNumberView::numberIncorrect, reserved));
             }
-        } catch (IllegalArgumentException e) {
-            for (final DrawNumberView view : views) {
-                view.numberIncorrect();
+        }
+        deliver();
+    }
+
+    private boolean isConsumerThread() {
+        for (final AsyncDrawNumberView view : views) {
+            if (view.isConsumerThread()) {
+                return true;
             }
         }
+        return false;
     }
 
     @Override
     public void resetGame() {
-        this.model.reset();
+        synchronized (model) {
+            this.model.reset();
+        }
+    }
+
+    /*
+     * Delivers the outputs in order, one thread at a time, without waiting for
+     * the lock: if another thread is delivering, it will deliver these outputs
+     * too. Checking the outbox again after unlocking leaves none behind.
+     */
+    private void deliver() {
+        while (!outbox.isEmpty() && delivering.tryLock()) {
+            try {
+                deliverOutbox();
+            } finally {
+                delivering.unlock();
+            }
+        }
+    }
+
+    private void deliverOutbox() {
+        Output output = outbox.poll();
+        while (output != null) {
+            if (output.reserved) {
+                outboxSpace.release();
+            }
+            for (final DrawNumberView view : views) {
+                output.action.accept(view);
+            }
+            output = outbox.poll();
+        }
     }
 
+    /*
+     * Returns once each view has received the outputs produced so far, and
+     * stopped.
+     */
     @Override
     public void quit() {
-        /*
-         * A bit harsh. A good application should configure the graphics to exit by
-         * natural termination when closing is hit. To do things more cleanly, attention
-         * should be paid to alive threads, as the application would continue to persist
-         * until the last thread terminates.
-         */
-        // System.exit(0);
+        delivering.lock();
+        try {
+            deliverOutbox();
+            /*
+             * A bit harsh. A good application should configure the graphics to exit by
+             * natural termination when closing is hit. To do things more cleanly, attention
+             * should be paid to alive threads, as the application would continue to persist
+             * until the last thread terminates.
+             */
+            // System.exit(0);
+
+            // Using the Jframe.dispose() method is a cleaner way to execute the termination
+            for (final DrawNumberView view : views) {
+                view.stop();
+            }
+        } finally {
+            delivering.unlock();
+        }
+    }
+
+    /**
+     * An output for all the views, and whether it holds room in the outbox.
+     */
+    private static final class Output {
+
+        private final Consumer<DrawNumberView> action;
+        private final boolean reserved;
 
-        // Using the Jframe.dispose() method is a cleaner way to execute the termination
-        for (final DrawNumberView view : views) {
-            view.stop();
+        Output(final Consumer<DrawNumberView> action, final boolean reserved) {
+            this.action = action;
+            this.reserved = reserved;
         }
     }
 
@@ -86,16 +198,14 @@ public final class DrawNumberApp implements DrawNumberViewObserver {
     /**
      * @param args
      *             ignored
-     * @throws FileNotFoundException        if the specified file cannot be neither
-     *                                      opened
-     *                                      nor created
-     * @throws UnsupportedEncodingException
+     * @throws IOException
+     *                     if the log file cannot be created
      */
-    public static void main(final String... args) throws FileNotFoundException, UnsupportedEncodingException {
-        // Launches the app attaching two graphical views, a file log and the console
-        // view (standard output)
-        new DrawNumberApp(new DrawNumberViewImpl(), new DrawNumberViewImpl(), new PrintStreamView("log.txt"),
-                new PrintStreamView(System.out));
+    public static void main(final String... args) throws IOException {
+        // Launches the app attaching two graphical views, a rolling file log and the
+        // console view (standard output)
+        new DrawNumberApp(new DrawNumberViewImpl(), new DrawNumberViewImpl(),
+                new RollingFileView.Builder().setPath(Path.of("log.txt")).build(), new PrintStreamView(System.out));
     }
 
 }
@@ -30,8 +30,27 @@ public final class DrawNumberImpl implements DrawNumber {
 
     @Override
     public void reset() {
+        reset(this.min + random.nextInt(this.max - this.min + 1));
+    }
+
+    /**
+     * Starts a new game with a known number, e.g. while replaying a journal.
+     *
+     * @param newChoice the number to guess
+     */
+    void reset(final int newChoice) {
+        if (newChoice < this.min || newChoice > this.max) {
+            throw new IllegalArgumentException("The number is outside boundaries");
+        }
         this.remainingAttempts = this.attempts;
-        this.choice = this.min + random.nextInt(this.max - this.min + 1);
+        this.choice = newChoice;
+    }
+
+    /**
+     * @return the number to guess in the current game
+     */
+    int getChoice() {
+        return choice;
     }
 
     @Override
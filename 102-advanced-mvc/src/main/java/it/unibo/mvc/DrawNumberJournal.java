@@ -0,0 +1,333 @@
+package it.unibo.mvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An append-only binary record of the resets and attempts of a game, from
+ * which the game can be rebuilt, e.g. after a crash.
+ *
+ * The journal is a directory of fixed-size segment files, each one mapped in
+ * memory: a record is written by copying a few bytes, and survives a crash of
+ * the process as soon as it is written, or a crash of the system after
+ * {@link #force()}. Each record is a tag byte, followed by a zigzag varint:
+ * a reset and its number to guess, or the result of an attempt and its
+ * guess. A zero tag marks the end of a segment. Attempts rejected because out
+ * of boundaries do not change the game, and are not recorded.
+ */
+public final class DrawNumberJournal implements AutoCloseable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 1 << 20;
+    private static final int END = 0;
+    private static final int RESET = 1;
+    private static final int ATTEMPT = 2;
+    private static final DrawResult[] RESULTS = DrawResult.values();
+    /*
+     * A tag, and an int in at most 5 groups of 7 bits.
+     */
+    private static final int MAX_RECORD = 6;
+    private static final int MAX_VARINT = MAX_RECORD - 1;
+    private static final int VARINT_BITS = 7;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_MORE = 0x80;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private int segmentIndex;
+    private MappedByteBuffer segment;
+    private boolean empty;
+    private boolean closed;
+
+    /**
+     * Receives the records of a journal, in order.
+     */
+    public interface Listener {
+
+        /**
+         * @param choice the number to guess of the new game
+         */
+        void reset(int choice);
+
+        /**
+         * @param n      the guess
+         * @param result the result of the guess
+         */
+        void attempt(int n, DrawResult result);
+    }
+
+    /**
+     * Opens a journal with segments of 1 MiB.
+     *
+     * @param directory the directory of the journal, created if needed
+     * @throws IOException if the journal cannot be opened
+     */
+    public DrawNumberJournal(final Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a journal, to append to its existing records, if any.
+     *
+     * @param directory   the directory of the journal, created if needed
+     * @param segmentSize the size of each segment file, in bytes
+     * @throws IOException if the journal cannot be opened
+     */
+    public DrawNumberJournal(final Path directory, final int segmentSize) throws IOException {
+        if (segmentSize <= MAX_RECORD) {
+            throw new IllegalArgumentException("Segments must hold at least a record");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        final List<Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            empty = true;
+            segment = map(0);
+        } else {
+            final Path last = segments.get(segments.size() - 1);
+            final String name = last.getFileName().toString();
+            segmentIndex = Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+            segment = map(segmentIndex);
+            /*
+             * Skips the records already written: a crash may have left none,
+             * e.g. right after the first segment was created.
+             */
+            empty = read(segment, last, null) == 0 && segments.size() == 1;
+            /*
+             * Clears what a crash may have left of a record being written, so
+             * that it does not follow a shorter record appended over it.
+             */
+            for (int i = segment.position(); i < Math.min(segment.limit(), segment.position() + MAX_RECORD); i++) {
+                segment.put(i, (byte) END);
+            }
+        }
+    }
+
+    /**
+     * Records the start of a new game.
+     *
+     * @param choice the number to guess
+     */
+    public synchronized void reset(final int choice) {
+        append(RESET, choice);
+    }
+
+    /**
+     * Records an attempt.
+     *
+     * @param n      the guess
+     * @param result the result of the guess
+     */
+    public synchronized void attempt(final int n, final DrawResult result) {
+        append(ATTEMPT + result.ordinal(), n);
+    }
+
+    /**
+     * Forces the records written so far to the storage device.
+     */
+    public synchronized void force() {
+        segment.force();
+    }
+
+    /**
+     * Forces the records to the storage device, and stops recording.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            segment.force();
+            closed = true;
+        }
+    }
+
+    /**
+     * Decorates a game, so that its resets and attempts are recorded in this
+     * journal. If the journal is empty, the current game of the model is
+     * recorded as a reset: the model should thus be new, or restored from
+     * this same journal.
+     *
+     * @param model the game to record
+     * @return the recorded game
+     */
+    public DrawNumber journaled(final DrawNumberImpl model) {
+        synchronized (this) {
+            if (empty) {
+                reset(model.getChoice());
+            }
+        }
+        return new DrawNumber() {
+            @Override
+            public void reset() {
+                synchronized (DrawNumberJournal.this) {
+                    reserve();
+                    model.reset();
+                    DrawNumberJournal.this.reset(model.getChoice());
+                }
+            }
+
+            @Override
+            public DrawResult attempt(final int n) {
+                synchronized (DrawNumberJournal.this) {
+                    reserve();
+                    final DrawResult result = model.attempt(n);
+                    DrawNumberJournal.this.attempt(n, result);
+                    return result;
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads a whole journal.
+     *
+     * @param directory the directory of the journal
+     * @param listener  receives the records, in order
+     * @return the number of records
+     * @throws IOException if the journal cannot be read, or is corrupted
+     */
+    public static long replay(final Path directory, final Listener listener) throws IOException {
+        Objects.requireNonNull(listener);
+        long records = 0;
+        for (final Path file : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                records += read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file, listener);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Rebuilds the state of a game from its journal, replaying each reset and
+     * attempt on it.
+     *
+     * @param directory the directory of the journal
+     * @param model     a game with the same configuration of the recorded one
+     * @return the number of records
+     * @throws IOException           if the journal cannot be read, or is
+     *                               corrupted
+     * @throws IllegalStateException if the journal does not match the rules of
+     *                               the model
+     */
+    public static long restore(final Path directory, final DrawNumberImpl model) throws IOException {
+        return replay(directory, new Listener() {
+            @Override
+            public void reset(final int choice) {
+                model.reset(choice);
+            }
+
+            @Override
+            public void attempt(final int n, final DrawResult result) {
+                if (model.attempt(n) != result) {
+                    throw new IllegalStateException("The journal does not match the game");
+                }
+            }
+        });
+    }
+
+    /*
+     * Makes room for the next record, mapping a new segment if needed: the
+     * decorated game calls it before changing the model, so that a failure
+     * leaves both the game and the journal as they were.
+     */
+    private void reserve() {
+        if (closed) {
+            throw new IllegalStateException("The journal is closed");
+        }
+        if (segment.remaining() < MAX_RECORD) {
+            segment.force();
+            try {
+                segment = map(segmentIndex + 1);
+                segmentIndex++;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void append(final int tag, final int value) {
+        reserve();
+        /*
+         * The tag is written last: a record is only visible once complete.
+         */
+        final int start = segment.position();
+        segment.position(start + 1);
+        int zigzag = value << 1 ^ value >> (Integer.SIZE - 1);
+        while ((zigzag & ~VARINT_MASK) != 0) {
+            segment.put((byte) (zigzag & VARINT_MASK | VARINT_MORE));
+            zigzag >>>= VARINT_BITS;
+        }
+        segment.put((byte) zigzag);
+        segment.put(start, (byte) tag);
+        empty = false;
+    }
+
+    /*
+     * Reads the records of a segment until its end, leaving the position of
+     * the buffer after the last one.
+     */
+    private static long read(final MappedByteBuffer buffer, final Path file, final Listener listener)
+            throws IOException {
+        long records = 0;
+        while (buffer.hasRemaining()) {
+            final int start = buffer.position();
+            final int tag = buffer.get();
+            if (tag == END) {
+                buffer.position(start);
+                break;
+            }
+            int zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (!buffer.hasRemaining() || shift == MAX_VARINT * VARINT_BITS) {
+                    throw new IOException("Corrupted journal " + file + " at " + start);
+                }
+                b = buffer.get();
+                zigzag |= (b & VARINT_MASK) << shift;
+                shift += VARINT_BITS;
+            } while ((b & VARINT_MORE) != 0);
+            final int value = zigzag >>> 1 ^ -(zigzag & 1);
+            if (listener != null) {
+                if (tag == RESET) {
+                    listener.reset(value);
+                } else if (tag >= ATTEMPT && tag < ATTEMPT + RESULTS.length) {
+                    listener.attempt(value, RESULTS[tag - ATTEMPT]);
+                } else {
+                    throw new IOException("Corrupted journal " + file + " at " + start);
+                }
+            }
+            records++;
+        }
+        return records;
+    }
+
+    private MappedByteBuffer map(final int index) throws IOException {
+        final Path file = directory.resolve(String.format("%s%08d%s", PREFIX, index, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private static List<Path> segments(final Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                final String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+}
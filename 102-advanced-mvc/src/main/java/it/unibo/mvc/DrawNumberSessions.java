@@ -0,0 +1,241 @@
+package it.unibo.mvc;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hosts many draw number games at once, each one identified by a session id.
+ *
+ * Games are not objects: the state of each one (secret number and remaining
+ * attempts) is packed into a single long, stored in arrays of 2^16 sessions
+ * each, next to the index of its configuration. A session thus costs 12 bytes,
+ * is created in constant time, and is updated atomically with a
+ * compare-and-set, so that different threads can play any sessions at the same
+ * time. A session id can be used by any thread once createSession has
+ * returned it: the configuration index is written after the state, and until
+ * then the session does not exist.
+ */
+public final class DrawNumberSessions {
+
+    private static final int SEGMENT_BITS = 16;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int MAX_SEGMENTS = 1 << (Integer.SIZE - 1 - SEGMENT_BITS);
+    private static final long ATTEMPTS_MASK = 0xFFFF_FFFFL;
+
+    private final AtomicReferenceArray<Segment> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+    private final AtomicInteger nextSession = new AtomicInteger();
+    private final Map<Configuration, Integer> configurationIds = new IdentityHashMap<>();
+    private final List<Configuration> configurations = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a configuration, so that sessions can refer to it by index.
+     * Configurations are compared by identity.
+     *
+     * @param configuration a consistent configuration
+     * @return the index of the configuration
+     * @throws IllegalArgumentException if the configuration is not consistent
+     */
+    public synchronized int register(final Configuration configuration) {
+        if (!configuration.isConsistent()) {
+            throw new IllegalArgumentException("Invalid configuration");
+        }
+        final Integer known = configurationIds.get(configuration);
+        if (known != null) {
+            return known;
+        }
+        final int id = configurations.size();
+        configurations.add(configuration);
+        configurationIds.put(configuration, id);
+        return id;
+    }
+
+    /**
+     * @param configuration the configuration of the game, registered if needed
+     * @return the id of a new, already reset, session
+     * @throws IllegalArgumentException if the configuration is not consistent
+     */
+    public int createSession(final Configuration configuration) {
+        return createSession(register(configuration));
+    }
+
+    /**
+     * @param configurationId the index of a registered configuration
+     * @return the id of a new, already reset, session
+     * @throws IllegalArgumentException if the configuration is not registered
+     * @throws IllegalStateException    if there are no more session ids
+     */
+    public int createSession(final int configurationId) {
+        final Configuration configuration = configuration(configurationId);
+        final int session = nextSession.getAndUpdate(i -> i < Integer.MAX_VALUE ? i + 1 : i);
+        if (session == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many sessions");
+        }
+        final Segment segment = segment(session >>> SEGMENT_BITS);
+        final int offset = session & SEGMENT_MASK;
+        segment.states.set(offset, newGame(configuration));
+        /*
+         * Publishes the session, and the state written before it.
+         */
+        segment.configurations.set(offset, configurationId + 1);
+        return session;
+    }
+
+    /**
+     * @param session the session id
+     * @see DrawNumber#reset()
+     */
+    public void reset(final int session) {
+        final Segment segment = existing(session);
+        final int offset = session & SEGMENT_MASK;
+        segment.states.set(offset, newGame(configurationOf(segment, offset)));
+    }
+
+    /**
+     * Starts a new game with a known number, like
+     * {@link DrawNumberImpl#reset(int)}.
+     *
+     * @param session   the session id
+     * @param newChoice the number to guess
+     */
+    void reset(final int session, final int newChoice) {
+        final Segment segment = existing(session);
+        final int offset = session & SEGMENT_MASK;
+        final Configuration configuration = configurationOf(segment, offset);
+        if (newChoice < configuration.getMin() || newChoice > configuration.getMax()) {
+            throw new IllegalArgumentException("The number is outside boundaries");
+        }
+        segment.states.set(offset, pack(newChoice, configuration.getAttempts()));
+    }
+
+    /**
+     * @param session the session id
+     * @param n       the guess
+     * @return the result of the guess
+     * @see DrawNumber#attempt(int)
+     */
+    public DrawResult attempt(final int session, final int n) {
+        final Segment segment = existing(session);
+        final int offset = session & SEGMENT_MASK;
+        while (true) {
+            final long state = segment.states.get(offset);
+            final int remainingAttempts = remainingAttempts(state);
+            if (remainingAttempts <= 0) {
+                return DrawResult.YOU_LOST;
+            }
+            final Configuration configuration = configurationOf(segment, offset);
+            if (n < configuration.getMin() || n > configuration.getMax()) {
+                throw new IllegalArgumentException("The number is outside boundaries");
+            }
+            final int choice = choice(state);
+            if (segment.states.compareAndSet(offset, state, pack(choice, remainingAttempts - 1))) {
+                if (n > choice) {
+                    return DrawResult.YOURS_HIGH;
+                }
+                if (n < choice) {
+                    return DrawResult.YOURS_LOW;
+                }
+                return DrawResult.YOU_WON;
+            }
+        }
+    }
+
+    /**
+     * @param session the session id
+     * @return the game of the session, as a {@link DrawNumber}
+     * @throws IllegalArgumentException if the session does not exist
+     */
+    public DrawNumber session(final int session) {
+        existing(session);
+        return new DrawNumber() {
+            @Override
+            public void reset() {
+                DrawNumberSessions.this.reset(session);
+            }
+
+            @Override
+            public DrawResult attempt(final int n) {
+                return DrawNumberSessions.this.attempt(session, n);
+            }
+        };
+    }
+
+    /**
+     * @return the number of sessions created so far
+     */
+    public int size() {
+        return nextSession.get();
+    }
+
+    private Configuration configuration(final int configurationId) {
+        if (configurationId < 0 || configurationId >= configurations.size()) {
+            throw new IllegalArgumentException("Unknown configuration " + configurationId);
+        }
+        return configurations.get(configurationId);
+    }
+
+    private Segment segment(final int index) {
+        final Segment segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        segments.compareAndSet(index, null, new Segment());
+        return segments.get(index);
+    }
+
+    /*
+     * A session exists once its configuration index is published, which may
+     * happen after its id has been taken.
+     */
+    private Segment existing(final int session) {
+        if (session >= 0 && session < nextSession.get()) {
+            final Segment segment = segments.get(session >>> SEGMENT_BITS);
+            if (segment != null && segment.configurations.get(session & SEGMENT_MASK) != 0) {
+                return segment;
+            }
+        }
+        throw new IllegalArgumentException("Unknown session " + session);
+    }
+
+    private Configuration configurationOf(final Segment segment, final int offset) {
+        return configurations.get(segment.configurations.get(offset) - 1);
+    }
+
+    private static long newGame(final Configuration configuration) {
+        final int choice = configuration.getMin()
+                + ThreadLocalRandom.current().nextInt(configuration.getMax() - configuration.getMin() + 1);
+        return pack(choice, configuration.getAttempts());
+    }
+
+    /*
+     * The choice in the high half, the remaining attempts in the low one.
+     */
+    static long pack(final int choice, final int remainingAttempts) {
+        return (long) choice << Integer.SIZE | (remainingAttempts & ATTEMPTS_MASK);
+    }
+
+    static int choice(final long state) {
+        return (int) (state >>> Integer.SIZE);
+    }
+
+    static int remainingAttempts(final long state) {
+        return (int) (state & ATTEMPTS_MASK);
+    }
+
+    /**
+     * The states and configuration indexes of 2^16 consecutive sessions. An
+     * index is stored plus one, so that zero marks a session not created yet.
+     */
+    private static final class Segment {
+
+        private final AtomicLongArray states = new AtomicLongArray(SEGMENT_SIZE);
+        private final AtomicIntegerArray configurations = new AtomicIntegerArray(SEGMENT_SIZE);
+    }
+}
@@ -0,0 +1,233 @@
+package it.unibo.mvc;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Plays many draw number games with the rules of {@link DrawNumberImpl}, to
+ * estimate how a guessing strategy performs under a {@link Configuration}.
+ *
+ * Games are played in chunks, in parallel on all cores. Each chunk draws its
+ * numbers from its own {@link SplittableRandom}, split from a seed before the
+ * simulation starts: the results only depend on the seed, not on the
+ * scheduling of the chunks. The games themselves do not allocate.
+ */
+public final class DrawNumberSimulator {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Chooses the next guess of a game.
+     */
+    @FunctionalInterface
+    public interface Strategy {
+
+        /**
+         * @param low    the smallest number that can still be the right one
+         * @param high   the largest number that can still be the right one
+         * @param random the source of randomness of the game
+         * @return the next guess, between low and high
+         */
+        int guess(int low, int high, SplittableRandom random);
+    }
+
+    /**
+     * Some common strategies.
+     */
+    public enum Strategies implements Strategy {
+
+        /**
+         * Guesses the middle of the candidates: wins in the fewest attempts in
+         * the worst case.
+         */
+        BINARY {
+            @Override
+            public int guess(final int low, final int high, final SplittableRandom random) {
+                return (int) ((low + (long) high) / 2);
+            }
+        },
+
+        /**
+         * Guesses any of the candidates, uniformly.
+         */
+        RANDOM {
+            @Override
+            public int guess(final int low, final int high, final SplittableRandom random) {
+                return (int) (low + random.nextLong(high - (long) low + 1));
+            }
+        },
+
+        /**
+         * Guesses at the first quarter of the candidates, like a player who
+         * expects small numbers.
+         */
+        BIASED {
+            @Override
+            public int guess(final int low, final int high, final SplittableRandom random) {
+                return (int) (low + (high - (long) low) / 4);
+            }
+        }
+    }
+
+    private DrawNumberSimulator() {
+    }
+
+    /**
+     * @param configuration the rules of the games
+     * @param strategy      the strategy of the player
+     * @param games         the number of games to play
+     * @param seed          the seed of the secret numbers and of the strategy
+     * @return the outcomes of the games
+     * @throws IllegalArgumentException if the configuration is not consistent
+     * @throws IllegalStateException    if the strategy guesses a number that
+     *                                  cannot be the right one
+     */
+    public static Result simulate(final Configuration configuration, final Strategy strategy, final long games,
+            final long seed) {
+        if (!configuration.isConsistent()) {
+            throw new IllegalArgumentException("Invalid configuration");
+        }
+        if (games < 0) {
+            throw new IllegalArgumentException("The number of games cannot be negative");
+        }
+        Objects.requireNonNull(strategy);
+        final long chunks = (games + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many games");
+        }
+        final SplittableRandom root = new SplittableRandom(seed);
+        final SplittableRandom[] randoms = new SplittableRandom[(int) chunks];
+        for (int i = 0; i < randoms.length; i++) {
+            randoms[i] = root.split();
+        }
+        return IntStream.range(0, randoms.length).parallel()
+                .mapToObj(i -> {
+                    final long played = Math.min(CHUNK_SIZE, games - (long) i * CHUNK_SIZE);
+                    return play(configuration, strategy, played, randoms[i]);
+                })
+                .reduce(Result::merge)
+                .orElseGet(() -> new Result(configuration.getAttempts()));
+    }
+
+    /**
+     * Simulates the same strategy under several configurations, e.g. a grid of
+     * candidate values for config.yml.
+     *
+     * @param configurations the rules to try
+     * @param strategy       the strategy of the player
+     * @param games          the number of games to play for each configuration
+     * @param seed           the seed of each simulation
+     * @return the outcomes of each configuration, in iteration order
+     */
+    public static Map<Configuration, Result> sweep(final Collection<Configuration> configurations,
+            final Strategy strategy, final long games, final long seed) {
+        final Map<Configuration, Result> results = new LinkedHashMap<>();
+        for (final Configuration configuration : configurations) {
+            results.put(configuration, simulate(configuration, strategy, games, seed));
+        }
+        return results;
+    }
+
+    private static Result play(final Configuration configuration, final Strategy strategy, final long games,
+            final SplittableRandom random) {
+        final int min = configuration.getMin();
+        final int max = configuration.getMax();
+        final int attempts = configuration.getAttempts();
+        final Result result = new Result(attempts);
+        for (long game = 0; game < games; game++) {
+            final int choice = (int) (min + random.nextLong(max - (long) min + 1));
+            int low = min;
+            int high = max;
+            for (int attempt = 1; attempt <= attempts; attempt++) {
+                final int guess = strategy.guess(low, high, random);
+                if (guess < low || guess > high) {
+                    throw new IllegalStateException("Guessed " + guess + " outside [" + low + ", " + high + "]");
+                }
+                if (guess == choice) {
+                    result.wonIn[attempt]++;
+                    break;
+                }
+                if (guess > choice) {
+                    high = guess - 1;
+                } else {
+                    low = guess + 1;
+                }
+            }
+        }
+        result.games = games;
+        return result;
+    }
+
+    /**
+     * The outcomes of a simulation.
+     */
+    public static final class Result {
+
+        private long games;
+        private final long[] wonIn;
+
+        private Result(final int attempts) {
+            this.wonIn = new long[attempts + 1];
+        }
+
+        private Result merge(final Result other) {
+            games += other.games;
+            for (int i = 0; i < wonIn.length; i++) {
+                wonIn[i] += other.wonIn[i];
+            }
+            return this;
+        }
+
+        /**
+         * @return the number of games played
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * @return the number of games won
+         */
+        public long getWins() {
+            return Arrays.stream(wonIn).sum();
+        }
+
+        /**
+         * @return the fraction of games won
+         */
+        public double getWinRate() {
+            return games == 0 ? 0 : (double) getWins() / games;
+        }
+
+        /**
+         * @return for each number of attempts n, at index n, the number of
+         *         games won with exactly n attempts; index 0 is always 0
+         */
+        public long[] getAttemptsHistogram() {
+            return wonIn.clone();
+        }
+
+        /**
+         * @return the mean number of attempts of the games won
+         */
+        public double getMeanAttemptsToWin() {
+            long total = 0;
+            for (int i = 1; i < wonIn.length; i++) {
+                total += i * wonIn[i];
+            }
+            final long wins = getWins();
+            return wins == 0 ? 0 : (double) total / wins;
+        }
+
+        @Override
+        public String toString() {
+            return "Result [games=" + games + ", winRate=" + getWinRate() + ", meanAttemptsToWin="
+                    + getMeanAttemptsToWin() + "]";
+        }
+    }
+}
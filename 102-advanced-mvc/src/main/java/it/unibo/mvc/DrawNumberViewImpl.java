@@ -4,15 +4,26 @@ import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
 
 /**
  * Graphical {@link DrawNumberView} implementation.
+ *
+ * It can be called from any thread. Each output is shown in a dialog on the
+ * event dispatch thread, and the call returns once the dialog is closed, so
+ * that the outputs not shown yet wait in the queue of the caller, e.g. an
+ * {@link AsyncDrawNumberView}, with its overflow policy. The event dispatch
+ * thread, in turn, never waits for the controller: the inputs are handed over
+ * to a thread of their own.
  */
 public final class DrawNumberViewImpl implements DrawNumberView {
 
@@ -24,6 +35,11 @@ public final class DrawNumberViewImpl implements DrawNumberView {
 
     private DrawNumberViewObserver observer;
     private final JFrame frame = new JFrame(FRAME_NAME);
+    private final ExecutorService inputs = Executors.newSingleThreadExecutor(task -> {
+        final Thread thread = new Thread(task, "draw-number-input");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * 
@@ -47,7 +63,8 @@ public final class DrawNumberViewImpl implements DrawNumberView {
             @Override
             public void actionPerformed(final ActionEvent e) {
                 try {
-                    observer.newAttempt(Integer.parseInt(tNumber.getText()));
+                    final int n = Integer.parseInt(tNumber.getText());
+                    inputs.execute(() -> observer.newAttempt(n));
                 } catch (final NumberFormatException exception) {
                     JOptionPane.showMessageDialog(frame, "An integer please..");
                 }
@@ -57,7 +74,7 @@ public final class DrawNumberViewImpl implements DrawNumberView {
             @Override
             public void actionPerformed(final ActionEvent e) {
                 if (confirmDialog("Confirm quitting?", "Quit")) {
-                    observer.quit();
+                    inputs.execute(observer::quit);
                 }
             }
         });
@@ -65,7 +82,7 @@ public final class DrawNumberViewImpl implements DrawNumberView {
             @Override
             public void actionPerformed(final ActionEvent e) {
                 if (confirmDialog("Confirm resetting?", "Reset")) {
-                    observer.resetGame();
+                    inputs.execute(observer::resetGame);
                 }
             }
         });
@@ -76,12 +93,13 @@ public final class DrawNumberViewImpl implements DrawNumberView {
 
     @Override
     public void start() {
-        this.frame.setVisible(true);
+        SwingUtilities.invokeLater(() -> this.frame.setVisible(true));
     }
 
     @Override
     public void stop() {
-        this.frame.dispose();
+        inputs.shutdown();
+        SwingUtilities.invokeLater(this.frame::dispose);
     }
 
     private boolean confirmDialog(final String question, final String name) {
@@ -96,17 +114,24 @@ public final class DrawNumberViewImpl implements DrawNumberView {
 
     @Override
     public void numberIncorrect() {
-        JOptionPane.showMessageDialog(frame, "Incorrect Number... try again", "Incorrect Number",
-                JOptionPane.ERROR_MESSAGE);
+        showAndWait(() -> JOptionPane.showMessageDialog(frame, "Incorrect Number... try again",
+                "Incorrect Number", JOptionPane.ERROR_MESSAGE));
     }
 
+    /*
+     * The controller starts a new game after a win or a loss.
+     */
     @Override
     public void result(final DrawResult res) {
+        showAndWait(() -> showResult(res));
+    }
+
+    private void showResult(final DrawResult res) {
         switch (res) {
             case YOURS_HIGH:
             case YOURS_LOW:
                 plainMessage(res.getDescription());
-                return;
+                break;
             case YOU_WON:
                 plainMessage(res.getDescription() + NEW_GAME);
                 break;
@@ -117,7 +142,6 @@ public final class DrawNumberViewImpl implements DrawNumberView {
             default:
                 throw new IllegalStateException("Unexpected result: " + res);
         }
-        observer.resetGame();
     }
 
     private void plainMessage(final String msg) {
@@ -126,6 +150,23 @@ public final class DrawNumberViewImpl implements DrawNumberView {
 
     @Override
     public void displayError(final String message) {
-        JOptionPane.showMessageDialog(frame, message, "Error", JOptionPane.ERROR_MESSAGE);
+        showAndWait(() -> JOptionPane.showMessageDialog(frame, message, "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    /*
+     * Modal dialogs return once closed.
+     */
+    private static void showAndWait(final Runnable dialog) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            dialog.run();
+            return;
+        }
+        try {
+            SwingUtilities.invokeAndWait(dialog);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        }
     }
 }
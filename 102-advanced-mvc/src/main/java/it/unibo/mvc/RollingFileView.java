@@ -0,0 +1,435 @@
+package it.unibo.mvc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A view that logs on file, like {@link PrintStreamView}, but built for
+ * heavy load: events are queued as already encoded lines, and a thread of its
+ * own writes them in batches, through a {@link FileChannel}.
+ *
+ * When the file exceeds a given size it is rolled: log.txt becomes log.txt.1,
+ * log.txt.1 becomes log.txt.2, and so on, up to a given number of files. When
+ * the queue is full, events wait for the writer. Stopping the view writes the
+ * pending events and closes the file; so does the exit of the JVM, if the
+ * view is not stopped before. Interrupting the writer stops the view too: the
+ * events already queued are still written, and later ones are discarded.
+ */
+public final class RollingFileView implements DrawNumberView {
+
+    private static final byte[] INCORRECT = encode("You must enter a number");
+    private static final byte[][] RESULTS = new byte[DrawResult.values().length][];
+    /*
+     * Compared by identity.
+     */
+    private static final byte[] STOP = new byte[0];
+    private static final long OFFER_MILLIS = 100;
+
+    static {
+        for (final DrawResult result : DrawResult.values()) {
+            RESULTS[result.ordinal()] = encode(result.getDescription());
+        }
+    }
+
+    private final Path path;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final SyncPolicy syncPolicy;
+    private final BlockingQueue<byte[]> queue;
+    private final ByteBuffer buffer;
+    private final Thread writer = new Thread(this::write, "rolling-file-view");
+    private final Thread shutdownHook = new Thread(this::stop, "rolling-file-view-shutdown");
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private FileChannel channel;
+    /*
+     * Only used by the writer.
+     */
+    private boolean interrupted;
+    private volatile IOException failure;
+
+    /**
+     * When the log is forced to the storage device, surviving a crash of the
+     * operating system.
+     */
+    public enum SyncPolicy {
+        /**
+         * Never: the operating system writes the log when it sees fit.
+         */
+        NEVER,
+        /**
+         * After each batch of events: the safest, and the slowest.
+         */
+        EVERY_BATCH,
+        /**
+         * Before rolling and closing a file.
+         */
+        ON_ROLL
+    }
+
+    private RollingFileView(final Builder builder) throws IOException {
+        this.path = builder.path;
+        this.maxFileSize = builder.maxFileSize;
+        this.maxFiles = builder.maxFiles;
+        this.syncPolicy = builder.syncPolicy;
+        this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+        this.buffer = ByteBuffer.allocateDirect(builder.bufferSize);
+        this.channel = open();
+        /*
+         * The writer does not keep the JVM alive: the shutdown hook stops it.
+         */
+        writer.setDaemon(true);
+    }
+
+    @Override
+    public void setObserver(final DrawNumberViewObserver observer) {
+        /*
+         * This UI is output only.
+         */
+    }
+
+    @Override
+    public void start() {
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        writer.start();
+    }
+
+    /**
+     * Writes the pending events, and closes the file.
+     */
+    @Override
+    public void stop() {
+        if (stopped.getAndSet(true)) {
+            return;
+        }
+        if (writer.getState() == Thread.State.NEW) {
+            try {
+                channel.close();
+            } catch (final IOException e) {
+                fail(e);
+            }
+            return;
+        }
+        try {
+            boolean offered = false;
+            while (!offered && writer.isAlive()) {
+                offered = queue.offer(STOP, OFFER_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            writer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void numberIncorrect() {
+        enqueue(INCORRECT);
+    }
+
+    @Override
+    public void result(final DrawResult res) {
+        enqueue(RESULTS[res.ordinal()]);
+    }
+
+    @Override
+    public void displayError(final String message) {
+        enqueue(encode("Error: " + message));
+    }
+
+    /**
+     * @return the error that stopped the writing of the log, or null; once
+     *         it fails, the view discards the events
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return the thread writing the log
+     */
+    Thread getWriter() {
+        return writer;
+    }
+
+    /*
+     * Waits for room in the queue only as long as the view is running: the
+     * writer may stop on its own, e.g. if interrupted.
+     */
+    private void enqueue(final byte[] line) {
+        try {
+            while (!stopped.get()) {
+                if (queue.offer(line, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * The loop of the writer thread: waits for an event, takes all the pending
+     * ones, and writes them.
+     */
+    private void write() {
+        final List<byte[]> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (final InterruptedException e) {
+                interrupted();
+            }
+            queue.drainTo(batch);
+            for (final byte[] line : batch) {
+                if (line == STOP) {
+                    running = false;
+                    break;
+                }
+                if (failure == null) {
+                    append(line);
+                }
+            }
+            batch.clear();
+            if (failure == null) {
+                flush(syncPolicy == SyncPolicy.EVERY_BATCH);
+            }
+            /*
+             * Once interrupted, writes what is queued, and refuses any later
+             * event.
+             */
+            running = running && !(interrupted && queue.isEmpty());
+        }
+        try {
+            if (syncPolicy != SyncPolicy.NEVER && failure == null) {
+                sync();
+            }
+            channel.close();
+        } catch (final IOException e) {
+            fail(e);
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (final IllegalStateException e) { // NOPMD
+            /*
+             * The JVM is shutting down: the hook is running, or about to.
+             */
+        }
+    }
+
+    private void append(final byte[] line) {
+        try {
+            final long position = onChannel(FileChannel::position);
+            if (position + buffer.position() + line.length > maxFileSize && position + buffer.position() > 0) {
+                flush(false);
+                roll();
+            }
+            if (line.length > buffer.remaining()) {
+                flush(false);
+                if (line.length > buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(line));
+                    return;
+                }
+            }
+            buffer.put(line);
+        } catch (final IOException e) {
+            fail(e);
+        }
+    }
+
+    private void flush(final boolean force) {
+        try {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+            if (force) {
+                sync();
+            }
+        } catch (final IOException e) {
+            fail(e);
+        }
+    }
+
+    private void writeFully(final ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            onChannel(c -> c.write(bytes));
+        }
+    }
+
+    /*
+     * Runs an operation on the channel. An interrupt of the writer closes the
+     * channel, even in the middle of an operation: in that case the file is
+     * reopened for appending, and the operation run again. An interrupted
+     * write still moves the buffer past the bytes it wrote, so none is
+     * written twice.
+     */
+    private long onChannel(final ChannelOperation operation) throws IOException {
+        while (true) {
+            try {
+                return operation.apply(channel);
+            } catch (final ClosedByInterruptException e) {
+                interrupted();
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    private void sync() throws IOException {
+        onChannel(c -> {
+            c.force(false);
+            return 0;
+        });
+    }
+
+    private void interrupted() {
+        Thread.interrupted();
+        interrupted = true;
+        stopped.set(true);
+    }
+
+    private void roll() throws IOException {
+        if (syncPolicy == SyncPolicy.ON_ROLL) {
+            sync();
+        }
+        channel.close();
+        Files.deleteIfExists(rolled(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 0; i--) {
+            final Path source = rolled(i);
+            if (Files.exists(source)) {
+                Files.move(source, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        channel = open();
+    }
+
+    private Path rolled(final int index) {
+        return index == 0 ? path : path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void fail(final IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    private static byte[] encode(final String line) {
+        return (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /*
+     * An operation on the channel, which may be closed by an interrupt.
+     */
+    @FunctionalInterface
+    private interface ChannelOperation {
+        long apply(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Builds a {@link RollingFileView}.
+     */
+    public static class Builder {
+
+        private static final long MAX_FILE_SIZE = 16L << 20;
+        private static final int MAX_FILES = 5;
+        private static final int QUEUE_CAPACITY = 1 << 16;
+        private static final int BUFFER_SIZE = 1 << 16;
+
+        private Path path;
+        private long maxFileSize = MAX_FILE_SIZE;
+        private int maxFiles = MAX_FILES;
+        private SyncPolicy syncPolicy = SyncPolicy.ON_ROLL;
+        private int queueCapacity = QUEUE_CAPACITY;
+        private int bufferSize = BUFFER_SIZE;
+        private boolean consumed;
+
+        /**
+         * @param path the file to log to
+         * @return this builder, for method chaining
+         */
+        public Builder setPath(final Path path) { // NOPMD
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * @param maxFileSize the size in bytes after which the file is rolled
+         * @return this builder, for method chaining
+         */
+        public Builder setMaxFileSize(final long maxFileSize) { // NOPMD
+            this.maxFileSize = maxFileSize;
+            return this;
+        }
+
+        /**
+         * @param maxFiles the number of files to keep, including the current one
+         * @return this builder, for method chaining
+         */
+        public Builder setMaxFiles(final int maxFiles) { // NOPMD
+            this.maxFiles = maxFiles;
+            return this;
+        }
+
+        /**
+         * @param syncPolicy when the log is forced to the storage device
+         * @return this builder, for method chaining
+         */
+        public Builder setSyncPolicy(final SyncPolicy syncPolicy) { // NOPMD
+            this.syncPolicy = syncPolicy;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity the number of events that can wait for the writer
+         * @return this builder, for method chaining
+         */
+        public Builder setQueueCapacity(final int queueCapacity) { // NOPMD
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param bufferSize the size in bytes of the writes to the file
+         * @return this builder, for method chaining
+         */
+        public Builder setBufferSize(final int bufferSize) { // NOPMD
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * @return a view logging to a new, empty, file
+         * @throws IOException if the file cannot be created
+         */
+        public final RollingFileView build() throws IOException {
+            if (consumed) {
+                throw new IllegalStateException("The builder can only be used once");
+            }
+            Objects.requireNonNull(path, "The path must be set");
+            Objects.requireNonNull(syncPolicy);
+            if (maxFileSize <= 0 || maxFiles <= 0 || queueCapacity <= 0 || bufferSize <= 0) {
+                throw new IllegalArgumentException("Sizes and counts must be positive");
+            }
+            consumed = true;
+            return new RollingFileView(this);
+        }
+    }
+}
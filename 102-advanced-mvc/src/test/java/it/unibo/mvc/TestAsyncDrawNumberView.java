@@ -0,0 +1,176 @@
+package it.unibo.mvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Test for {@link it.unibo.mvc.AsyncDrawNumberView}.
+ */
+final class TestAsyncDrawNumberView {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    /**
+     * Records the outputs it receives as strings, and stays busy with the
+     * first one until released.
+     */
+    private static final class BusyView implements DrawNumberView {
+
+        private final List<String> outputs = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch busy = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void setObserver(final DrawNumberViewObserver observer) {
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void numberIncorrect() {
+            record("incorrect");
+        }
+
+        @Override
+        public void result(final DrawResult res) {
+            record(res.name());
+        }
+
+        @Override
+        public void displayError(final String message) {
+            record("error " + message);
+        }
+
+        private void record(final String output) {
+            outputs.add(output);
+            busy.countDown();
+            try {
+                released.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /*
+         * Starts the view, and delivers it a first event, which keeps it busy,
+         * so that the next ones stay queued.
+         */
+        AsyncDrawNumberView start(final int capacity, final AsyncDrawNumberView.OverflowPolicy policy)
+                throws InterruptedException {
+            final AsyncDrawNumberView view = new AsyncDrawNumberView(this, capacity, policy);
+            view.start();
+            view.displayError("first");
+            busy.await();
+            return view;
+        }
+    }
+
+    /**
+     * Test that the oldest events are discarded, and counted, when the queue
+     * is full.
+     */
+    @Test
+    void testDropOldest() {
+        final BusyView busy = new BusyView();
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            final AsyncDrawNumberView view = busy.start(3, AsyncDrawNumberView.OverflowPolicy.DROP_OLDEST);
+            for (int i = 0; i < 10; i++) {
+                view.displayError(Integer.toString(i));
+            }
+            view.result(DrawResult.YOU_WON);
+            assertEquals(8, view.getDropped());
+            busy.released.countDown();
+            view.stop();
+            assertEquals(8, view.getDropped());
+        });
+        assertEquals(List.of("error first", "error 8", "error 9", DrawResult.YOU_WON.name()), busy.outputs);
+    }
+
+    /**
+     * Test that only hints and incorrect numbers are coalesced, that errors
+     * and the ends of games are kept, and that the events are delivered in
+     * order.
+     */
+    @Test
+    void testCoalesce() {
+        final BusyView busy = new BusyView();
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            final AsyncDrawNumberView view = busy.start(3, AsyncDrawNumberView.OverflowPolicy.COALESCE);
+            view.displayError("a");
+            view.result(DrawResult.YOURS_HIGH);
+            view.result(DrawResult.YOU_WON);
+            /*
+             * Full: the new hint replaces the queued one, then an incorrect
+             * number replaces it in turn.
+             */
+            view.result(DrawResult.YOURS_LOW);
+            view.numberIncorrect();
+            assertEquals(2, view.getDropped());
+            /*
+             * An error replaces the last hint; with no hints left, a new one
+             * is discarded, and a new error waits.
+             */
+            view.displayError("b");
+            view.result(DrawResult.YOURS_HIGH);
+            assertEquals(4, view.getDropped());
+            final Thread waiting = new Thread(() -> view.displayError("c"));
+            waiting.start();
+            waiting.join(200);
+            assertTrue(waiting.isAlive());
+            busy.released.countDown();
+            waiting.join();
+            view.stop();
+            assertEquals(4, view.getDropped());
+        });
+        assertEquals(List.of("error first", "error a", DrawResult.YOU_WON.name(), "error b", "error c"),
+                busy.outputs);
+    }
+
+    /**
+     * Test that no event is lost, nor queued beyond the capacity, when the
+     * caller waits for the view.
+     */
+    @Test
+    void testBlock() {
+        final BusyView busy = new BusyView();
+        final List<String> expected = new ArrayList<>(List.of("error first"));
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            final AsyncDrawNumberView view = busy.start(2, AsyncDrawNumberView.OverflowPolicy.BLOCK);
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    view.displayError(Integer.toString(i));
+                }
+            });
+            producer.start();
+            producer.join(200);
+            assertTrue(producer.isAlive());
+            assertEquals(1, busy.outputs.size());
+            busy.released.countDown();
+            producer.join();
+            view.stop();
+            assertEquals(0, view.getDropped());
+        });
+        for (int i = 0; i < 100; i++) {
+            expected.add("error " + i);
+        }
+        assertEquals(expected, busy.outputs);
+    }
+}
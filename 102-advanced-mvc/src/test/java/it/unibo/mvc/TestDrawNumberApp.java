@@ -0,0 +1,262 @@
+package it.unibo.mvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Test for {@link it.unibo.mvc.DrawNumberApp}, with views delivered
+ * asynchronously.
+ */
+final class TestDrawNumberApp {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+    /*
+     * Within the boundaries of both the configuration file and the defaults.
+     */
+    private static final int GUESS = 50;
+
+    /**
+     * Records the outputs it receives, ignoring the ones about the
+     * configuration.
+     */
+    private static class RecordingView implements DrawNumberView {
+
+        private final List<DrawResult> results = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean stopped;
+        private DrawNumberViewObserver observer;
+
+        @Override
+        public void setObserver(final DrawNumberViewObserver observer) {
+            this.observer = observer;
+        }
+
+        protected DrawNumberViewObserver getObserver() {
+            return observer;
+        }
+
+        protected List<DrawResult> getResults() {
+            return results;
+        }
+
+        @Override
+        public void start() {
+            stopped = false;
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+
+        @Override
+        public void numberIncorrect() {
+            results.add(null);
+        }
+
+        @Override
+        public void result(final DrawResult res) {
+            results.add(res);
+        }
+
+        @Override
+        public void displayError(final String message) {
+            /*
+             * The configuration file may be missing from the class path.
+             */
+        }
+    }
+
+    /**
+     * A view that stays busy with its first result until released.
+     */
+    private static final class SlowView extends RecordingView {
+
+        private final CountDownLatch busy = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        @Override
+        public void result(final DrawResult res) {
+            super.result(res);
+            busy.countDown();
+            try {
+                released.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Test that a game that ends is reset by the controller before any other
+     * attempt: after a win or a loss, the next attempt is never lost.
+     */
+    @Test
+    void testResetAfterEnd() {
+        final RecordingView view = new RecordingView();
+        final DrawNumberApp app = new DrawNumberApp(view);
+        for (int i = 0; i < 500; i++) {
+            app.newAttempt(GUESS);
+        }
+        app.newAttempt(Integer.MIN_VALUE);
+        app.quit();
+        assertTrue(view.stopped);
+        assertEquals(501, view.results.size());
+        assertEquals(null, view.results.get(500));
+        final List<DrawResult> results = view.results.subList(0, 500);
+        assertTrue(results.contains(DrawResult.YOU_LOST));
+        for (int i = 1; i < results.size(); i++) {
+            if (results.get(i - 1) == DrawResult.YOU_WON || results.get(i - 1) == DrawResult.YOU_LOST) {
+                assertNotEquals(DrawResult.YOU_LOST, results.get(i), "Attempt " + i + " played an ended game");
+            }
+        }
+    }
+
+    /**
+     * Test that a view calling back the controller while it delivers an
+     * output, as the graphical one used to do after a result, does not
+     * deadlock with a controller waiting for a full queue.
+     */
+    @Test
+    void testCallbackWhileBlocked() {
+        final RecordingView view = new RecordingView() {
+            @Override
+            public void result(final DrawResult res) {
+                super.result(res);
+                getObserver().resetGame();
+                getObserver().newAttempt(Integer.MIN_VALUE);
+            }
+        };
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            final DrawNumberApp app = new DrawNumberApp(AsyncDrawNumberView.OverflowPolicy.BLOCK, 1, view);
+            for (int i = 0; i < 2000; i++) {
+                app.newAttempt(GUESS);
+            }
+            app.quit();
+        });
+        assertEquals(2000, view.results.stream().filter(r -> r != null).count());
+    }
+
+    /**
+     * Test that attempts from many threads reach every view, in the same
+     * order.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testSameOrderForAllViews() throws InterruptedException {
+        final RecordingView first = new RecordingView();
+        final RecordingView second = new RecordingView();
+        final DrawNumberApp app = new DrawNumberApp(AsyncDrawNumberView.OverflowPolicy.BLOCK, 4, first, second);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> players = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int guess = GUESS - t;
+            final Thread player = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 1000; i++) {
+                    app.newAttempt(i % 10 == 0 ? Integer.MAX_VALUE : guess);
+                }
+            });
+            player.start();
+            players.add(player);
+        }
+        start.countDown();
+        for (final Thread player : players) {
+            player.join();
+        }
+        app.quit();
+        assertTrue(first.stopped && second.stopped);
+        assertEquals(4000, first.results.size());
+        assertEquals(first.results, second.results);
+    }
+
+    /**
+     * Test that a view that does not keep up does not slow down the model,
+     * nor the other views, when its outputs can be dropped: all of them with
+     * {@link AsyncDrawNumberView.OverflowPolicy#DROP_OLDEST}, incorrect
+     * numbers with {@link AsyncDrawNumberView.OverflowPolicy#COALESCE}.
+     */
+    @Test
+    void testSlowViewDoesNotSlowModel() {
+        for (final var policy : List.of(AsyncDrawNumberView.OverflowPolicy.DROP_OLDEST,
+                AsyncDrawNumberView.OverflowPolicy.COALESCE)) {
+            final SlowView slow = new SlowView();
+            final RecordingView fast = new RecordingView();
+            final DrawNumberApp app = new DrawNumberApp(policy, 4, slow, fast);
+            assertTimeoutPreemptively(TIMEOUT, () -> {
+                app.newAttempt(GUESS);
+                slow.busy.await();
+                for (int i = 0; i < 2000; i++) {
+                    app.newAttempt(Integer.MIN_VALUE);
+                }
+            }, policy + " waited for the slow view");
+            assertEquals(1, slow.getResults().size());
+            slow.released.countDown();
+            app.quit();
+            /*
+             * Both views end with the latest output, an incorrect number.
+             */
+            for (final RecordingView view : List.of(slow, fast)) {
+                final List<DrawResult> results = view.getResults();
+                assertTrue(results.size() >= 2 && results.size() < 2001, "Received " + results.size());
+                assertEquals(null, results.get(results.size() - 1));
+            }
+            assertTrue(slow.getResults().size() <= 5, "Received " + slow.getResults().size());
+        }
+    }
+
+    /**
+     * Test that, when the controller waits for a slow view, attempts from
+     * many threads wait too, instead of piling up their outputs.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testBoundedOutputs() throws InterruptedException {
+        final int capacity = 4;
+        final SlowView slow = new SlowView();
+        final DrawNumberApp app = new DrawNumberApp(AsyncDrawNumberView.OverflowPolicy.BLOCK, capacity, slow);
+        final AtomicInteger played = new AtomicInteger();
+        final List<Thread> players = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Thread player = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    app.newAttempt(GUESS);
+                    played.incrementAndGet();
+                }
+            });
+            player.start();
+            players.add(player);
+        }
+        Thread.sleep(500);
+        /*
+         * The outputs in the view, in its queue, the one being queued, and
+         * the ones in the outbox, waiting for it.
+         */
+        assertTrue(played.get() <= 3 * capacity + 1 + players.size(), "Played " + played.get());
+        slow.released.countDown();
+        for (final Thread player : players) {
+            player.join();
+        }
+        app.quit();
+        assertEquals(4000, slow.getResults().size());
+    }
+}
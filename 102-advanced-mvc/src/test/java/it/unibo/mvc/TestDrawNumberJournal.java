@@ -0,0 +1,273 @@
+package it.unibo.mvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Test for {@link it.unibo.mvc.DrawNumberJournal}.
+ */
+final class TestDrawNumberJournal {
+
+    private static final int[] VALUES = {
+        Integer.MIN_VALUE, -65, -64, -1, 0, 1, 63, 64, 127, 128, 16_383, 16_384, Integer.MAX_VALUE,
+    };
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Records the records of a journal as strings.
+     */
+    private static final class Recorder implements DrawNumberJournal.Listener {
+
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void reset(final int choice) {
+            records.add("reset " + choice);
+        }
+
+        @Override
+        public void attempt(final int n, final DrawResult result) {
+            records.add(result + " " + n);
+        }
+    }
+
+    private List<String> replay() throws IOException {
+        final Recorder recorder = new Recorder();
+        assertEquals(DrawNumberJournal.replay(directory, recorder), recorder.records.size());
+        return recorder.records;
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static Configuration configuration() {
+        return new Configuration.Builder().setMin(-50).setMax(50).setAttempts(7).build();
+    }
+
+    /**
+     * Test that every value, and every result, is read back as written.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void testRoundTrip() throws IOException {
+        final List<String> expected = new ArrayList<>();
+        try (DrawNumberJournal journal = new DrawNumberJournal(directory)) {
+            for (final int value : VALUES) {
+                journal.reset(value);
+                expected.add("reset " + value);
+                for (final DrawResult result : DrawResult.values()) {
+                    journal.attempt(value, result);
+                    expected.add(result + " " + value);
+                }
+            }
+        }
+        assertEquals(expected, replay());
+        assertEquals(1, segments());
+    }
+
+    /**
+     * Test that records continue in new segments when one is full.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void testRollover() throws IOException {
+        final List<String> expected = new ArrayList<>();
+        try (DrawNumberJournal journal = new DrawNumberJournal(directory, 16)) {
+            for (int i = 0; i < 100; i++) {
+                final int value = VALUES[i % VALUES.length];
+                journal.attempt(value, DrawResult.YOURS_LOW);
+                expected.add(DrawResult.YOURS_LOW + " " + value);
+            }
+            journal.force();
+        }
+        assertTrue(segments() > 20);
+        assertEquals(expected, replay());
+        assertThrows(IllegalArgumentException.class, () -> new DrawNumberJournal(directory, 6));
+    }
+
+    /**
+     * Test that a reopened journal appends to the records already written,
+     * also across segments, and that a closed journal refuses records.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void testReopen() throws IOException {
+        final List<String> expected = new ArrayList<>();
+        for (int run = 0; run < 5; run++) {
+            final DrawNumberJournal journal = new DrawNumberJournal(directory, 32);
+            for (int i = 0; i < 7; i++) {
+                journal.reset(run * 100 + i);
+                expected.add("reset " + (run * 100 + i));
+            }
+            journal.close();
+            assertThrows(IllegalStateException.class, () -> journal.reset(0));
+        }
+        assertEquals(expected, replay());
+    }
+
+    /**
+     * Test that a record torn by a crash, whose tag is still zero, ends the
+     * journal, and is overwritten by the next record without leaving garbage.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void testTornRecord() throws IOException {
+        try (DrawNumberJournal journal = new DrawNumberJournal(directory)) {
+            journal.reset(3);
+            journal.attempt(-2, DrawResult.YOURS_HIGH);
+        }
+        /*
+         * Two records of two bytes each; a crash left the value, but not the
+         * tag, of a record with a five-byte value.
+         */
+        try (FileChannel channel = FileChannel.open(directory.resolve("segment-00000000.journal"),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF, (byte) 0x81, (byte) 0x81, 0x01}), 5);
+        }
+        assertEquals(List.of("reset 3", "YOURS_HIGH -2"), replay());
+        try (DrawNumberJournal journal = new DrawNumberJournal(directory)) {
+            journal.attempt(1, DrawResult.YOU_WON);
+        }
+        assertEquals(List.of("reset 3", "YOURS_HIGH -2", "YOU_WON 1"), replay());
+    }
+
+    /**
+     * Test that a journal left without records by a crash is still empty
+     * when reopened, and records the initial game.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void testEmptyAfterCrash() throws IOException {
+        new DrawNumberJournal(directory).close();
+        assertEquals(1, segments());
+        final DrawNumberImpl model = new DrawNumberImpl(configuration());
+        try (DrawNumberJournal journal = new DrawNumberJournal(directory)) {
+            final DrawNumber journaled = journal.journaled(model);
+            journaled.attempt(model.getChoice() == 50 ? 49 : 50);
+        }
+        final DrawNumberImpl restored = new DrawNumberImpl(configuration());
+        assertEquals(2, DrawNumberJournal.restore(directory, restored));
+        assertEquals(model.getChoice(), restored.getChoice());
+    }
+
+    /**
+     * Test that restoring a journal rebuilds a game equal to the original
+     * one, across resets, reopens and rejected attempts.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void testRestore() throws IOException {
+        final Random random = new Random(3);
+        final DrawNumberImpl model = new DrawNumberImpl(configuration());
+        for (int run = 0; run < 3; run++) {
+            try (DrawNumberJournal journal = new DrawNumberJournal(directory, 64)) {
+                final DrawNumber journaled = journal.journaled(model);
+                for (int i = 0; i < 100; i++) {
+                    if (random.nextInt(20) == 0) {
+                        journaled.reset();
+                    } else {
+                        final int n = random.nextInt(121) - 60;
+                        try {
+                            journaled.attempt(n);
+                        } catch (final IllegalArgumentException e) { // NOPMD
+                            /*
+                             * Out of boundaries, and not journaled.
+                             */
+                        }
+                    }
+                }
+            }
+        }
+        final DrawNumberImpl restored = new DrawNumberImpl(configuration());
+        DrawNumberJournal.restore(directory, restored);
+        assertEquals(model.getChoice(), restored.getChoice());
+        for (int n = -50; n <= 50; n++) {
+            assertEquals(model.attempt(n), restored.attempt(n));
+        }
+        final DrawNumberImpl other = new DrawNumberImpl(new Configuration.Builder().setMin(-50).setMax(50)
+                .setAttempts(1).build());
+        assertThrows(IllegalStateException.class, () -> DrawNumberJournal.restore(directory, other));
+    }
+
+    /**
+     * Test that a record running past the end of its segment, or with a value
+     * longer than an int, is reported as corrupted.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    @Test
+    void testCorrupted() throws IOException {
+        final Path file = directory.resolve("segment-00000000.journal");
+        final byte more = (byte) 0x80;
+        Files.write(file, new byte[] {1, 0x04, 1, more, more});
+        assertThrows(IOException.class, this::replay);
+        Files.write(file, new byte[] {1, more, more, more, more, more, 0x01, 0});
+        assertThrows(IOException.class, this::replay);
+        final byte all = (byte) 0xFF;
+        Files.write(file, new byte[] {1, all, all, all, all, 0x0F, 0});
+        assertEquals(List.of("reset " + Integer.MIN_VALUE), replay());
+    }
+
+    /**
+     * Test that an attempt is not played if the journal cannot make room for
+     * its record, so that the journal still matches the game.
+     *
+     * @throws IOException if the journal cannot be used
+     */
+    @Test
+    void testFailedRollover() throws IOException {
+        final DrawNumberImpl model = new DrawNumberImpl(configuration());
+        final int wrong = model.getChoice() == 50 ? 49 : 50;
+        final Path next = directory.resolve("segment-00000001.journal");
+        try (DrawNumberJournal journal = new DrawNumberJournal(directory, 8)) {
+            final DrawNumber journaled = journal.journaled(model);
+            journaled.attempt(wrong);
+            /*
+             * The first segment is full, and the next one cannot be created.
+             */
+            Files.createDirectory(next);
+            assertThrows(UncheckedIOException.class, () -> journaled.attempt(wrong));
+            assertThrows(UncheckedIOException.class, journaled::reset);
+            Files.delete(next);
+            for (int i = 0; i < 3; i++) {
+                journaled.attempt(wrong);
+            }
+        }
+        final DrawNumberImpl restored = new DrawNumberImpl(configuration());
+        assertEquals(5, DrawNumberJournal.restore(directory, restored));
+        assertEquals(model.getChoice(), restored.getChoice());
+        for (int n = -50; n <= 50; n++) {
+            assertEquals(model.attempt(n), restored.attempt(n));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package it.unibo.mvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Test for {@link it.unibo.mvc.DrawNumberSessions}.
+ */
+final class TestDrawNumberSessions {
+
+    private static Configuration configuration(final int min, final int max, final int attempts) {
+        return new Configuration.Builder().setMin(min).setMax(max).setAttempts(attempts).build();
+    }
+
+    /**
+     * Test that the state of a session is packed and unpacked unchanged.
+     */
+    @Test
+    void testPacking() {
+        for (final int choice : new int[] {Integer.MIN_VALUE, -100, -1, 0, 1, 42, Integer.MAX_VALUE}) {
+            for (final int attempts : new int[] {0, 1, 10, Integer.MAX_VALUE}) {
+                final long state = DrawNumberSessions.pack(choice, attempts);
+                assertEquals(choice, DrawNumberSessions.choice(state));
+                assertEquals(attempts, DrawNumberSessions.remainingAttempts(state));
+            }
+        }
+    }
+
+    /**
+     * Test that sessions play exactly like {@link DrawNumberImpl}, also with
+     * negative numbers and guesses out of boundaries.
+     */
+    @Test
+    void testSameAsDrawNumberImpl() {
+        final Random random = new Random(1);
+        final var sessions = new DrawNumberSessions();
+        for (final Configuration configuration : List.of(configuration(-50, 50, 7), configuration(10, 60, 5),
+                configuration(-10, -1, 3))) {
+            final DrawNumberImpl model = new DrawNumberImpl(configuration);
+            final int session = sessions.createSession(configuration);
+            final int span = configuration.getMax() - configuration.getMin() + 1;
+            for (int game = 0; game < 200; game++) {
+                final int choice = configuration.getMin() + random.nextInt(span);
+                model.reset(choice);
+                sessions.reset(session, choice);
+                for (int attempt = 0; attempt < configuration.getAttempts() + 2; attempt++) {
+                    final int n = configuration.getMin() - 2 + random.nextInt(span + 4);
+                    assertEquals(outcome(() -> model.attempt(n)), outcome(() -> sessions.attempt(session, n)));
+                }
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> sessions.reset(0, 51));
+    }
+
+    private static Object outcome(final Supplier<DrawResult> attempt) {
+        try {
+            return attempt.get();
+        } catch (final IllegalArgumentException e) {
+            return IllegalArgumentException.class;
+        }
+    }
+
+    /**
+     * Test that concurrent attempts on the same session consume each attempt
+     * exactly once.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testConcurrentAttempts() throws InterruptedException {
+        final var sessions = new DrawNumberSessions();
+        final int session = sessions.createSession(configuration(0, 100, 1000));
+        sessions.reset(session, 0);
+        final AtomicInteger played = new AtomicInteger();
+        final AtomicInteger lost = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (sessions.attempt(session, 100) == DrawResult.YOU_LOST) {
+                        lost.incrementAndGet();
+                    } else {
+                        played.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, played.get());
+        assertEquals(3000, lost.get());
+        assertEquals(DrawResult.YOU_LOST, sessions.attempt(session, 0));
+        sessions.reset(session);
+        assertNotEquals(DrawResult.YOU_LOST, sessions.attempt(session, 0));
+    }
+
+    /**
+     * Test that a session being created cannot be played before its state is
+     * published: with unlimited attempts, no attempt can be lost.
+     *
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testCreationIsPublished() throws InterruptedException {
+        final var sessions = new DrawNumberSessions();
+        final int configuration = sessions.register(configuration(0, 100, Integer.MAX_VALUE));
+        final AtomicInteger lost = new AtomicInteger();
+        final Thread creator = new Thread(() -> {
+            for (int i = 0; i < 300_000; i++) {
+                sessions.createSession(configuration);
+            }
+        });
+        creator.start();
+        while (creator.isAlive()) {
+            final int last = sessions.size() - 1;
+            try {
+                if (last >= 0 && sessions.attempt(last, 50) == DrawResult.YOU_LOST) {
+                    lost.incrementAndGet();
+                }
+            } catch (final IllegalArgumentException e) { // NOPMD
+                /*
+                 * Taken, but not created yet.
+                 */
+            }
+        }
+        creator.join();
+        assertEquals(0, lost.get());
+        assertEquals(300_000, sessions.size());
+    }
+
+    /**
+     * Test unknown sessions and configurations.
+     */
+    @Test
+    void testUnknown() {
+        final var sessions = new DrawNumberSessions();
+        assertThrows(IllegalArgumentException.class, () -> sessions.attempt(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> sessions.createSession(0));
+        final Configuration configuration = configuration(0, 10, 3);
+        assertEquals(sessions.register(configuration), sessions.register(configuration));
+        final int session = sessions.createSession(configuration);
+        assertThrows(IllegalArgumentException.class, () -> sessions.reset(-1));
+        assertThrows(IllegalArgumentException.class, () -> sessions.session(session + 1));
+        assertThrows(IllegalArgumentException.class, () -> sessions.attempt(session, 11));
+        assertThrows(IllegalArgumentException.class, () -> sessions.createSession(configuration(5, 5, 1)));
+    }
+}
@@ -0,0 +1,121 @@
+package it.unibo.mvc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Test for {@link it.unibo.mvc.DrawNumberSimulator}.
+ */
+final class TestDrawNumberSimulator {
+
+    private static Configuration configuration(final int min, final int max, final int attempts) {
+        return new Configuration.Builder().setMin(min).setMax(max).setAttempts(attempts).build();
+    }
+
+    /**
+     * Test that the results only depend on the seed, not on the number of
+     * threads playing the chunks.
+     *
+     * @throws ExecutionException   if a simulation fails
+     * @throws InterruptedException if the test is interrupted
+     */
+    @Test
+    void testDeterminism() throws ExecutionException, InterruptedException {
+        final Configuration configuration = configuration(10, 60, 5);
+        /*
+         * More than one chunk, and not a multiple of its size.
+         */
+        final long games = 300_001;
+        for (final DrawNumberSimulator.Strategy strategy : DrawNumberSimulator.Strategies.values()) {
+            final var parallel = DrawNumberSimulator.simulate(configuration, strategy, games, 42);
+            final ForkJoinPool single = new ForkJoinPool(1);
+            try {
+                final var sequential = single.submit(
+                    () -> DrawNumberSimulator.simulate(configuration, strategy, games, 42)
+                ).get();
+                assertArrayEquals(parallel.getAttemptsHistogram(), sequential.getAttemptsHistogram());
+            } finally {
+                single.shutdown();
+            }
+            assertArrayEquals(parallel.getAttemptsHistogram(),
+                    DrawNumberSimulator.simulate(configuration, strategy, games, 42).getAttemptsHistogram());
+            assertEquals(games, parallel.getGames());
+        }
+        final var random = DrawNumberSimulator.Strategies.RANDOM;
+        assertNotEquals(
+            DrawNumberSimulator.simulate(configuration, random, games, 1).getWins(),
+            DrawNumberSimulator.simulate(configuration, random, games, 2).getWins()
+        );
+    }
+
+    /**
+     * Test that binary search never loses with enough attempts, that is
+     * ceil(log2(n + 1)) for n candidates, and wins as often as expected with
+     * one attempt less.
+     */
+    @Test
+    void testBinaryNeverLoses() {
+        for (final int[] range : new int[][] {{0, 1}, {0, 2}, {10, 60}, {0, 100}, {-1000, 1000}, {-7, -3},
+                {0, 1 << 20}, {Integer.MIN_VALUE / 2, Integer.MAX_VALUE / 2}}) {
+            final long candidates = (long) range[1] - range[0] + 1;
+            final int needed = Long.SIZE - Long.numberOfLeadingZeros(candidates);
+            final var enough = DrawNumberSimulator.simulate(
+                configuration(range[0], range[1], needed), DrawNumberSimulator.Strategies.BINARY, 100_000, 7
+            );
+            assertEquals(1.0, enough.getWinRate(), "Lost with " + needed + " attempts on " + candidates);
+            assertTrue(enough.getMeanAttemptsToWin() <= needed);
+            if (needed > 1) {
+                final var fewer = DrawNumberSimulator.simulate(
+                    configuration(range[0], range[1], needed - 1), DrawNumberSimulator.Strategies.BINARY, 100_000, 7
+                );
+                /*
+                 * Binary search finds 2^k - 1 numbers within k attempts: with
+                 * 2^20 + 1 candidates, it is very unlikely to lose at all.
+                 */
+                final double expected = ((1L << (needed - 1)) - 1) / (double) candidates;
+                assertEquals(expected, fewer.getWinRate(), 0.01);
+            }
+        }
+    }
+
+    /**
+     * Test the histogram of the results, and the strategies that guess out of
+     * the candidates.
+     */
+    @Test
+    void testResults() {
+        final Configuration configuration = configuration(0, 100, 10);
+        final var result = DrawNumberSimulator.simulate(configuration, DrawNumberSimulator.Strategies.BIASED,
+                10_000, 3);
+        final long[] histogram = result.getAttemptsHistogram();
+        assertEquals(11, histogram.length);
+        assertEquals(0, histogram[0]);
+        long wins = 0;
+        for (final long won : histogram) {
+            wins += won;
+        }
+        assertEquals(result.getWins(), wins);
+        assertEquals(0, DrawNumberSimulator.simulate(configuration, (l, h, r) -> l, 0, 1).getGames());
+        assertThrows(IllegalStateException.class,
+                () -> DrawNumberSimulator.simulate(configuration, (l, h, r) -> h + 1, 10, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> DrawNumberSimulator.simulate(configuration(5, 5, 1), DrawNumberSimulator.Strategies.BINARY, 1, 1));
+        final var sweep = DrawNumberSimulator.sweep(List.of(configuration(0, 10, 2), configuration(0, 10, 4)),
+                DrawNumberSimulator.Strategies.BINARY, 1000, 5);
+        final var rates = sweep.values().stream().map(DrawNumberSimulator.Result::getWinRate).toList();
+        assertTrue(rates.get(0) < rates.get(1));
+        assertEquals(1.0, rates.get(1));
+    }
+}
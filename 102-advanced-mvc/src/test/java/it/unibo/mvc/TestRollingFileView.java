@@ -0,0 +1,200 @@
+package it.unibo.mvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/*
+ * CHECKSTYLE: MagicNumber OFF
+ * The above comment shuts down checkstyle: in a test suite, magic numbers may be tolerated.
+ */
+/**
+ * Test for {@link it.unibo.mvc.RollingFileView}.
+ */
+final class TestRollingFileView {
+
+    @TempDir
+    private Path directory;
+
+    private static List<String> messages(final int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.format("message %04d", i)).collect(Collectors.toList());
+    }
+
+    private static List<String> lines(final Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Test that the pending events are written when the view is stopped.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Test
+    void testFlushOnStop() throws IOException {
+        final Path log = directory.resolve("log.txt");
+        final RollingFileView view = new RollingFileView.Builder().setPath(log).build();
+        view.start();
+        final List<String> messages = messages(10_000);
+        messages.forEach(view::displayError);
+        view.result(DrawResult.YOU_WON);
+        view.numberIncorrect();
+        view.stop();
+        final List<String> expected = messages.stream().map(m -> "Error: " + m).collect(Collectors.toList());
+        expected.add(DrawResult.YOU_WON.getDescription());
+        expected.add("You must enter a number");
+        assertEquals(expected, lines(log));
+        assertNull(view.getFailure());
+        /*
+         * Stopped views ignore the events.
+         */
+        view.displayError("late");
+        view.stop();
+        assertEquals(expected, lines(log));
+        final Path never = directory.resolve("never.txt");
+        new RollingFileView.Builder().setPath(never).build().stop();
+        assertEquals(0, Files.size(never));
+    }
+
+    /**
+     * Test that files are rolled at the size limit, keeping the most recent
+     * events, in order, in at most the given number of files.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Test
+    void testRolling() throws IOException {
+        final Path log = directory.resolve("log.txt");
+        final RollingFileView view = new RollingFileView.Builder().setPath(log).setMaxFileSize(100).setMaxFiles(3)
+                .setBufferSize(32).setSyncPolicy(RollingFileView.SyncPolicy.EVERY_BATCH).build();
+        view.start();
+        final List<String> messages = messages(100);
+        messages.forEach(view::displayError);
+        view.stop();
+        assertTrue(Files.exists(directory.resolve("log.txt.1")));
+        assertTrue(Files.exists(directory.resolve("log.txt.2")));
+        assertFalse(Files.exists(directory.resolve("log.txt.3")));
+        final List<String> kept = new ArrayList<>();
+        for (final String name : List.of("log.txt.2", "log.txt.1", "log.txt")) {
+            final Path file = directory.resolve(name);
+            assertTrue(Files.size(file) <= 100, name + " is " + Files.size(file) + " bytes");
+            kept.addAll(lines(file));
+        }
+        final List<String> all = messages.stream().map(m -> "Error: " + m).collect(Collectors.toList());
+        assertEquals(all.subList(all.size() - kept.size(), all.size()), kept);
+        /*
+         * Each line is about 20 bytes, and each full file holds 4 or 5.
+         */
+        assertTrue(kept.size() >= 9, "Kept " + kept.size() + " lines");
+    }
+
+    /**
+     * Test that a single file is truncated when rolled.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Test
+    void testSingleFile() throws IOException {
+        final Path log = directory.resolve("log.txt");
+        final RollingFileView view = new RollingFileView.Builder().setPath(log).setMaxFileSize(100).setMaxFiles(1)
+                .build();
+        view.start();
+        final List<String> messages = messages(100);
+        messages.forEach(view::displayError);
+        view.stop();
+        assertFalse(Files.exists(directory.resolve("log.txt.1")));
+        final List<String> kept = lines(log);
+        assertTrue(Files.size(log) <= 100);
+        assertFalse(kept.isEmpty());
+        assertEquals("Error: " + messages.get(99), kept.get(kept.size() - 1));
+    }
+
+    /**
+     * Test lines larger than the buffer and than the size limit: each one is
+     * written whole, in a file of its own.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Test
+    void testOversizedLines() throws IOException {
+        final Path log = directory.resolve("log.txt");
+        final RollingFileView view = new RollingFileView.Builder().setPath(log).setMaxFileSize(50).setMaxFiles(4)
+                .setBufferSize(16).build();
+        view.start();
+        final String large = "x".repeat(200);
+        view.displayError("small");
+        view.displayError(large);
+        view.displayError(large + "y");
+        view.displayError("small again");
+        view.stop();
+        assertEquals(List.of("Error: small"), lines(directory.resolve("log.txt.3")));
+        assertEquals(List.of("Error: " + large), lines(directory.resolve("log.txt.2")));
+        assertEquals(List.of("Error: " + large + "y"), lines(directory.resolve("log.txt.1")));
+        assertEquals(List.of("Error: small again"), lines(log));
+    }
+
+    /**
+     * Test that events are not waited for once the writer has been
+     * interrupted, even if the queue is full.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Test
+    void testInterruptedWriter() throws IOException {
+        final Path log = directory.resolve("log.txt");
+        final RollingFileView view = new RollingFileView.Builder().setPath(log).setQueueCapacity(1).build();
+        view.start();
+        view.displayError("before");
+        final Thread writer = view.getWriter();
+        writer.interrupt();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            writer.join();
+            for (int i = 0; i < 100; i++) {
+                view.displayError("after");
+            }
+            view.stop();
+        });
+        assertEquals(List.of("Error: before"), lines(log));
+    }
+
+    /**
+     * Test that interrupting the writer while it writes, which closes the
+     * file channel, neither fails the log nor loses or repeats the events
+     * queued before.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Test
+    void testInterruptedWrite() throws IOException {
+        final Path log = directory.resolve("log.txt");
+        final RollingFileView view = new RollingFileView.Builder().setPath(log).setQueueCapacity(16)
+                .setBufferSize(64).setSyncPolicy(RollingFileView.SyncPolicy.EVERY_BATCH).build();
+        view.start();
+        final List<String> messages = messages(2000);
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            messages.subList(0, 1000).forEach(view::displayError);
+            view.getWriter().interrupt();
+            messages.subList(1000, 2000).forEach(view::displayError);
+            view.getWriter().join();
+            view.stop();
+        });
+        assertNull(view.getFailure());
+        final List<String> written = lines(log);
+        assertTrue(written.size() >= 1000, "Written " + written.size() + " lines");
+        assertEquals(messages.subList(0, written.size()).stream().map(m -> "Error: " + m)
+                .collect(Collectors.toList()), written);
+    }
+}